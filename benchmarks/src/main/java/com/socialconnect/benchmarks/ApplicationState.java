@@ -0,0 +1,74 @@
+package com.socialconnect.benchmarks;
+
+import com.socialconnect.SocialConnectApplication;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application once per fork against a private in-memory H2 database and
+ * lets the application's own dataset generator fill it, so every fork measures the
+ * same seeded graph.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    ConfigurableApplicationContext context;
+    List<Long> userIds;
+    List<String> usernames;
+    List<Long> postIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SocialConnectApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--dataset.generate=true",
+                "--dataset.users=1000",
+                "--dataset.follows-per-user=30",
+                "--dataset.posts-per-user=10",
+                "--dataset.likes-per-post=5",
+                "--dataset.comments-per-post=3",
+                // Keep the write-behind jobs from running during measurement
+                "--likes.counter.flush-interval-ms=3600000",
+                "--likes.counter.reconcile-interval-ms=3600000");
+
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        List<User> users = bean(UserRepository.class).findAll(Sort.by("id"));
+        userIds = users.stream().map(User::getId).toList();
+        usernames = users.stream().map(User::getUsername).toList();
+        postIds = jdbc.queryForList("SELECT id FROM posts ORDER BY id", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Index into userIds and usernames
+    int randomUser() {
+        return ThreadLocalRandom.current().nextInt(userIds.size());
+    }
+
+    long randomPostId() {
+        return postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+    }
+}
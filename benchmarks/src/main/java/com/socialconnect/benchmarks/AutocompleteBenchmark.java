@@ -0,0 +1,59 @@
+package com.socialconnect.benchmarks;
+
+import com.socialconnect.service.UserAutocompleteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead for prefixes of one to seven characters of a random username: the in-memory
+ * index against the prefix query a keystroke would otherwise cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private UserAutocompleteIndex index;
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        index = app.bean(UserAutocompleteIndex.class);
+        jdbc = app.bean(JdbcTemplate.class);
+    }
+
+    @Benchmark
+    public List<UserAutocompleteIndex.Suggestion> index(ApplicationState app) {
+        return index.suggest(randomPrefix(app), 10);
+    }
+
+    @Benchmark
+    public List<Long> databasePrefixQuery(ApplicationState app) {
+        String pattern = randomPrefix(app) + "%";
+        return jdbc.queryForList("SELECT id FROM users WHERE LOWER(username) LIKE ? OR LOWER(first_name) LIKE ? "
+                + "OR LOWER(last_name) LIKE ? ORDER BY follower_count DESC, id LIMIT 10",
+                Long.class, pattern, pattern, pattern);
+    }
+
+    private static String randomPrefix(ApplicationState app) {
+        String username = app.usernames.get(app.randomUser()).toLowerCase();
+        return username.substring(0, Math.min(username.length(), 1 + ThreadLocalRandom.current().nextInt(7)));
+    }
+}
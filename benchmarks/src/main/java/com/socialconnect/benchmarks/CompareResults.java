@@ -0,0 +1,63 @@
+package com.socialconnect.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and exits non-zero when any benchmark present in
+ * both got slower than the threshold, so a release build can gate on it:
+ * {@code java -cp target/benchmarks.jar com.socialconnect.benchmarks.CompareResults baseline.json current.json [10]}.
+ * Scores are average times, so a higher score is a regression.
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %12s %12s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            if (before == null) {
+                System.out.printf("%-70s %12s %12.3f %9s%n", entry.getKey(), "-", metric.get("score").asDouble(), "new");
+                continue;
+            }
+            double old = before.get("primaryMetric").get("score").asDouble();
+            double now = metric.get("score").asDouble();
+            double change = (now - old) / old * 100;
+            boolean regressed = change > threshold;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-70s %12.3f %12.3f %+8.1f%%%s%n", entry.getKey(), old, now, change, regressed ? "  REGRESSION" : "");
+        }
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Keyed by benchmark name plus parameters, since @Param runs share a name
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,72 @@
+package com.socialconnect.benchmarks;
+
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.projection.PostView;
+import com.socialconnect.service.PostHydrator;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.TimelineService;
+import com.socialconnect.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed assembly end to end through {@link PostService}, and post hydration alone on
+ * a page that is already loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private PostService postService;
+    private PostHydrator postHydrator;
+    private List<PostView> page;
+    private User viewer;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        postService = app.bean(PostService.class);
+        postHydrator = app.bean(PostHydrator.class);
+        viewer = app.bean(UserService.class).getEntityByUsername(app.usernames.get(0));
+        page = app.bean(TimelineService.class).getTimeline(viewer, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageResponse<PostResponse> feed(ApplicationState app) {
+        return postService.getFeed(app.usernames.get(app.randomUser()), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageResponse<PostResponse> globalTimeline(ApplicationState app) {
+        return postService.getAllPosts(app.usernames.get(app.randomUser()), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageResponse<PostResponse> userPosts(ApplicationState app) {
+        return postService.getUserPosts(app.userIds.get(app.randomUser()), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<PostResponse> hydratePage() {
+        return postHydrator.hydrate(page, viewer);
+    }
+}
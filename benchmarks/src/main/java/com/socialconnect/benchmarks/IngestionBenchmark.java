@@ -0,0 +1,128 @@
+package com.socialconnect.benchmarks;
+
+import com.socialconnect.entity.Comment;
+import com.socialconnect.entity.Follow;
+import com.socialconnect.entity.Like;
+import com.socialconnect.entity.Post;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.CommentRepository;
+import com.socialconnect.repository.FollowRepository;
+import com.socialconnect.repository.LikeRepository;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Bulk inserts of likes, follows and comments through the JPA repositories, which is
+ * where ID generation decides whether Hibernate can batch. Each invocation flushes
+ * {@code rows} entities in one transaction and rolls it back, so the dataset stays
+ * the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestionBenchmark {
+
+    @Param({"100"})
+    int rows;
+
+    private TransactionTemplate transactionTemplate;
+    private UserRepository userRepository;
+    private PostRepository postRepository;
+    private LikeRepository likeRepository;
+    private FollowRepository followRepository;
+    private CommentRepository commentRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        transactionTemplate = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+        userRepository = app.bean(UserRepository.class);
+        postRepository = app.bean(PostRepository.class);
+        likeRepository = app.bean(LikeRepository.class);
+        followRepository = app.bean(FollowRepository.class);
+        commentRepository = app.bean(CommentRepository.class);
+    }
+
+    // A new post liked by the first rows users, so the unique (post, user) pairs never collide
+    @Benchmark
+    public int likes(ApplicationState app) {
+        return inRolledBackTransaction(() -> {
+            Post post = postRepository.save(Post.builder()
+                    .content("Benchmark post")
+                    .author(userRepository.getReferenceById(app.userIds.get(app.randomUser())))
+                    .build());
+            List<Like> likes = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                likes.add(Like.builder().post(post).user(userRepository.getReferenceById(app.userIds.get(i))).build());
+            }
+            return likeRepository.saveAll(likes).size();
+        });
+    }
+
+    // A new user following the first rows users
+    @Benchmark
+    public int follows(ApplicationState app) {
+        return inRolledBackTransaction(() -> {
+            User follower = userRepository.save(User.builder()
+                    .username("benchmarkfollower")
+                    .email("benchmarkfollower@example.com")
+                    .password("unused")
+                    .firstName("Benchmark")
+                    .lastName("Follower")
+                    .build());
+            List<Follow> follows = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                follows.add(Follow.builder().follower(follower).following(userRepository.getReferenceById(app.userIds.get(i))).build());
+            }
+            return followRepository.saveAll(follows).size();
+        });
+    }
+
+    @Benchmark
+    public int comments(ApplicationState app) {
+        return inRolledBackTransaction(() -> {
+            Post post = postRepository.getReferenceById(app.randomPostId());
+            List<Comment> comments = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                comments.add(Comment.builder()
+                        .content("Benchmark comment " + i)
+                        .post(post)
+                        .author(userRepository.getReferenceById(app.userIds.get(app.randomUser())))
+                        .build());
+            }
+            return commentRepository.saveAll(comments).size();
+        });
+    }
+
+    // Flushing before the rollback makes every insert reach the database
+    private int inRolledBackTransaction(IntSupplier work) {
+        Integer saved = transactionTemplate.execute(status -> {
+            int count = work.getAsInt();
+            likeRepository.flush();
+            status.setRollbackOnly();
+            return count;
+        });
+        return saved == null ? 0 : saved;
+    }
+}
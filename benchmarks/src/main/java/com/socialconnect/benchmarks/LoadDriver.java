@@ -0,0 +1,320 @@
+package com.socialconnect.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load driver for a locally running instance, typically one started
+ * with {@code dataset.generate=true}. Each worker logs in as one of the synthetic
+ * {@code user<n>} accounts and replays a weighted mix of operations, recording an
+ * HdrHistogram per operation. Options are {@code --name=value}:
+ *
+ * <pre>
+ * --url=http://localhost:8080  --users=10000  --sessions=200  --threads=64
+ * --warmup=10  --duration=60  --think-ms=0  --output=results/load-&lt;timestamp&gt;
+ * --mix=feed:50,profile:15,comments:10,like:15,follow:4,post:3,comment:3
+ * </pre>
+ *
+ * Likes and follows toggle: a 400 for an existing like or follow is answered with the
+ * matching DELETE, recorded as {@code unlike} or {@code unfollow}.
+ */
+public final class LoadDriver {
+
+    private static final String DEFAULT_MIX = "feed:50,profile:15,comments:10,like:15,follow:4,post:3,comment:3";
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SAMPLE_PAGES = 20;
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> operations = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private final List<Long> postIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    private LoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("url", "http://localhost:8080");
+        int total = 0;
+        for (String entry : option("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.split(":");
+            total += Integer.parseInt(parts[1]);
+            operations.add(parts[0]);
+            cumulativeWeights.add(total);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(parts[0], parts.length > 1 ? parts[1] : "true");
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws Exception {
+        int threads = Integer.parseInt(option("threads", "64"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(option("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(option("duration", "60")));
+        long thinkMillis = Long.parseLong(option("think-ms", "0"));
+
+        login(Integer.parseInt(option("users", "10000")), Integer.parseInt(option("sessions", "200")), threads);
+        sampleTargets();
+        System.out.printf("Driving %s with %d threads, %d sessions, %d sampled posts for %ds after %ds warmup%n",
+                baseUrl, threads, sessions.size(), postIds.size(), duration.toSeconds(), warmup.toSeconds());
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, Stats>>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(workers.submit(() -> work(measureFrom, measureUntil, thinkMillis)));
+        }
+        Map<String, Stats> merged = new TreeMap<>();
+        for (Future<Map<String, Stats>> result : results) {
+            result.get().forEach((operation, stats) -> merged.computeIfAbsent(operation, op -> new Stats()).add(stats));
+        }
+        workers.shutdown();
+        report(merged, duration);
+    }
+
+    private Map<String, Stats> work(long measureFrom, long measureUntil, long thinkMillis) throws InterruptedException {
+        Map<String, Stats> stats = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < measureUntil) {
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            String operation = pickOperation(random);
+            perform(operation, session, random, stats, measureFrom, measureUntil);
+            if (thinkMillis > 0) {
+                Thread.sleep(thinkMillis);
+            }
+        }
+        return stats;
+    }
+
+    private void perform(String operation, Session session, ThreadLocalRandom random, Map<String, Stats> stats,
+                         long measureFrom, long measureUntil) {
+        long postId = postIds.get(random.nextInt(postIds.size()));
+        long userId = userIds.get(random.nextInt(userIds.size()));
+        switch (operation) {
+            case "feed" -> call("feed", session.get("/api/posts/feed?limit=20"), stats, measureFrom, measureUntil);
+            case "profile" -> call("profile", session.get("/api/posts/user/" + userId + "?limit=20"), stats, measureFrom, measureUntil);
+            case "comments" -> call("comments", session.get("/api/comments/post/" + postId + "?limit=20"), stats, measureFrom, measureUntil);
+            case "like" -> {
+                if (call("like", session.send("POST", "/api/likes/post/" + postId, null), stats, measureFrom, measureUntil) == 400) {
+                    call("unlike", session.send("DELETE", "/api/likes/post/" + postId, null), stats, measureFrom, measureUntil);
+                }
+            }
+            case "follow" -> {
+                if (userId == session.userId) {
+                    return;
+                }
+                if (call("follow", session.send("POST", "/api/follows/" + userId, null), stats, measureFrom, measureUntil) == 400) {
+                    call("unfollow", session.send("DELETE", "/api/follows/" + userId, null), stats, measureFrom, measureUntil);
+                }
+            }
+            case "post" -> call("post", session.send("POST", "/api/posts",
+                    "{\"content\":\"Load test post " + random.nextLong() + "\"}"), stats, measureFrom, measureUntil);
+            case "comment" -> call("comment", session.send("POST", "/api/comments/post/" + postId,
+                    "{\"content\":\"Load test comment " + random.nextLong() + "\"}"), stats, measureFrom, measureUntil);
+            default -> throw new IllegalArgumentException("Unknown operation in --mix: " + operation);
+        }
+    }
+
+    // Returns the status code so toggling operations can react; 400 counts as an expected outcome
+    private int call(String operation, HttpRequest request, Map<String, Stats> stats, long measureFrom, long measureUntil) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+        long finished = System.nanoTime();
+        if (start >= measureFrom && finished <= measureUntil) {
+            Stats operationStats = stats.computeIfAbsent(operation, op -> new Stats());
+            operationStats.latencies.recordValue(Math.min(finished - start, HIGHEST_TRACKABLE_NANOS));
+            if (status < 200 || (status >= 300 && status != 400)) {
+                operationStats.errors++;
+            }
+        }
+        return status;
+    }
+
+    private String pickOperation(ThreadLocalRandom random) {
+        int roll = random.nextInt(cumulativeWeights.get(cumulativeWeights.size() - 1));
+        for (int i = 0; i < operations.size(); i++) {
+            if (roll < cumulativeWeights.get(i)) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void login(int users, int sessionCount, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, 16));
+        List<Future<Session>> logins = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            String username = "user" + ThreadLocalRandom.current().nextInt(users);
+            logins.add(pool.submit(() -> loginAs(username)));
+        }
+        for (Future<Session> login : logins) {
+            sessions.add(login.get());
+        }
+        pool.shutdown();
+    }
+
+    // Works in both auth modes: a token-mode login returns an access token, session mode a cookie
+    private Session loginAs(String username) throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"password\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode() + " " + response.body());
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        if (json.has("accessToken")) {
+            return new Session(json.get("user").get("id").asLong(), "Authorization", "Bearer " + json.get("accessToken").asText());
+        }
+        String cookie = response.headers().firstValue("Set-Cookie")
+                .map(value -> value.split(";", 2)[0])
+                .orElseThrow(() -> new IllegalStateException("Login returned neither a token nor a session cookie"));
+        return new Session(json.get("id").asLong(), "Cookie", cookie);
+    }
+
+    // Recent posts and their authors become the like, comment and follow targets
+    private void sampleTargets() throws IOException, InterruptedException {
+        Session session = sessions.get(0);
+        String cursor = null;
+        for (int page = 0; page < SAMPLE_PAGES; page++) {
+            String path = "/api/posts?limit=100" + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "");
+            JsonNode json = objectMapper.readTree(client.send(session.get(path), HttpResponse.BodyHandlers.ofString()).body());
+            for (JsonNode post : json.get("items")) {
+                postIds.add(post.get("id").asLong());
+                userIds.add(post.get("author").get("id").asLong());
+            }
+            if (json.get("nextCursor").isNull()) {
+                break;
+            }
+            cursor = json.get("nextCursor").asText();
+        }
+        if (postIds.isEmpty()) {
+            throw new IllegalStateException("No posts found; start the application with dataset.generate=true");
+        }
+    }
+
+    private void report(Map<String, Stats> stats, Duration duration) throws IOException {
+        Path output = Path.of(option("output", "results/load-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+        Files.createDirectories(output);
+
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("url", baseUrl);
+        summary.put("durationSeconds", duration.toSeconds());
+        summary.set("options", objectMapper.valueToTree(new TreeMap<>(options)));
+        ObjectNode operationsNode = summary.putObject("operations");
+
+        System.out.printf("%n%-10s %9s %9s %8s %8s %8s %8s %8s %7s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", latencies.getTotalCount());
+            row.put("throughput", latencies.getTotalCount() / (double) duration.toSeconds());
+            row.put("p50Ms", latencies.getValueAtPercentile(50) / 1e6);
+            row.put("p90Ms", latencies.getValueAtPercentile(90) / 1e6);
+            row.put("p99Ms", latencies.getValueAtPercentile(99) / 1e6);
+            row.put("p999Ms", latencies.getValueAtPercentile(99.9) / 1e6);
+            row.put("maxMs", latencies.getMaxValue() / 1e6);
+            row.put("errors", entry.getValue().errors);
+            operationsNode.set(entry.getKey(), objectMapper.valueToTree(row));
+
+            System.out.printf("%-10s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7d%n", entry.getKey(),
+                    row.get("count"), row.get("throughput"), row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"),
+                    row.get("p999Ms"), row.get("maxMs"), row.get("errors"));
+            try (PrintStream out = new PrintStream(output.resolve(entry.getKey() + ".hgrm").toFile(), StandardCharsets.UTF_8)) {
+                latencies.outputPercentileDistribution(out, 1e6);
+            }
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.resolve("summary.json").toFile(), summary);
+        System.out.println("\nHistograms (.hgrm, milliseconds) and summary.json written to " + output);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static final class Stats {
+        private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private long errors;
+
+        void add(Stats other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+    }
+
+    private final class Session {
+        private final long userId;
+        private final String header;
+        private final String value;
+
+        Session(long userId, String header, String value) {
+            this.userId = userId;
+            this.header = header;
+            this.value = value;
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).header(header, value).GET().build();
+        }
+
+        HttpRequest send(String method, String path, String json) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).header(header, value);
+            if (json == null) {
+                return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(json)).build();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.socialconnect.benchmarks;
+
+import com.socialconnect.repository.LikeRepository;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.TimelineEntryRepository;
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.PostView;
+import com.socialconnect.repository.projection.UserSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries behind a feed page, each in its own read-only transaction against the
+ * embedded H2 dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    // One extra row, as the cursor pagination fetches
+    private static final PageRequest PAGE = PageRequest.of(0, 21);
+
+    private TimelineEntryRepository timelineEntryRepository;
+    private PostRepository postRepository;
+    private LikeRepository likeRepository;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        timelineEntryRepository = app.bean(TimelineEntryRepository.class);
+        postRepository = app.bean(PostRepository.class);
+        likeRepository = app.bean(LikeRepository.class);
+        userRepository = app.bean(UserRepository.class);
+    }
+
+    @Benchmark
+    public List<PostView> timelinePage(ApplicationState app) {
+        return timelineEntryRepository.findTimelinePosts(app.userIds.get(app.randomUser()), PAGE);
+    }
+
+    @Benchmark
+    public List<PostView> latestPosts() {
+        return postRepository.findLatest(PAGE);
+    }
+
+    @Benchmark
+    public List<PostView> authorPosts(ApplicationState app) {
+        return postRepository.findByAuthorIdOrderByCreatedAtDescIdDesc(app.userIds.get(app.randomUser()), PAGE);
+    }
+
+    @Benchmark
+    public List<Long> likedPostIds(ApplicationState app) {
+        int first = ThreadLocalRandom.current().nextInt(app.postIds.size() - 20);
+        return likeRepository.findLikedPostIds(app.userIds.get(app.randomUser()), app.postIds.subList(first, first + 20));
+    }
+
+    @Benchmark
+    public List<UserSummary> usersById(ApplicationState app) {
+        int first = ThreadLocalRandom.current().nextInt(app.userIds.size() - 20);
+        return userRepository.findSummariesByIdIn(app.userIds.subList(first, first + 20));
+    }
+}
@@ -0,0 +1,51 @@
+package com.socialconnect.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of hydrated {@link PostResponse} lists with the application's
+ * own {@link ObjectMapper}, so registered modules and features match production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<PostResponse> posts;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        objectMapper = app.bean(ObjectMapper.class);
+        posts = app.bean(PostService.class).getAllPosts(app.usernames.get(0), null, size).getItems();
+    }
+
+    @Benchmark
+    public byte[] postList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+}
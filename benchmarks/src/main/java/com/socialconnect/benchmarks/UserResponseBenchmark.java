@@ -0,0 +1,61 @@
+package com.socialconnect.benchmarks;
+
+import com.socialconnect.dto.response.CommentResponse;
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.dto.response.UserListResponse;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.service.CommentService;
+import com.socialconnect.service.FollowService;
+import com.socialconnect.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read paths that each carry their own {@code UserResponse} builder: a single
+ * profile, a follower list, and a comment page with one author per comment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserResponseBenchmark {
+
+    private UserService userService;
+    private FollowService followService;
+    private CommentService commentService;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        userService = app.bean(UserService.class);
+        followService = app.bean(FollowService.class);
+        commentService = app.bean(CommentService.class);
+    }
+
+    @Benchmark
+    public UserResponse userProfile(ApplicationState app) {
+        return userService.getUserById(app.userIds.get(app.randomUser()));
+    }
+
+    @Benchmark
+    public UserListResponse followers(ApplicationState app) {
+        return followService.getFollowers(app.userIds.get(app.randomUser()), 0, 20);
+    }
+
+    @Benchmark
+    public CursorPageResponse<CommentResponse> postComments(ApplicationState app) {
+        return commentService.getCommentsByPost(app.randomPostId(), null, 20);
+    }
+}
@@ -0,0 +1,36 @@
+package com.socialconnect.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "auth")
+public class AuthProperties {
+
+    private Mode mode = Mode.SESSION;
+
+    private Token token = new Token();
+
+    public enum Mode {
+        SESSION,
+        TOKEN
+    }
+
+    @Data
+    public static class Token {
+
+        // Key id used to sign new tokens; must be present in keys
+        private String signingKeyId;
+
+        // Key id -> base64 HMAC-SHA256 secret (at least 32 bytes); every entry is accepted for verification
+        private Map<String, String> keys = new LinkedHashMap<>();
+
+        private Duration accessTtl = Duration.ofMinutes(15);
+
+        private Duration refreshTtl = Duration.ofDays(14);
+    }
+}
@@ -0,0 +1,30 @@
+package com.socialconnect.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "dataset")
+public class DatasetProperties {
+
+    // Generate a synthetic dataset at startup when the users table is empty
+    private boolean generate = false;
+
+    private long seed = 42;
+
+    private int users = 10_000;
+
+    // Means; individual counts follow a heavy-tailed (log-normal) distribution around them
+    private double followsPerUser = 20;
+    private double postsPerUser = 5;
+    private double likesPerPost = 3;
+    private double commentsPerPost = 1;
+
+    // Zipf exponent for picking follow targets; higher concentrates followers on fewer accounts
+    private double followSkew = 1.0;
+
+    // Posts, likes and comments are spread over this many days before startup
+    private int historyDays = 90;
+
+    private int batchSize = 5_000;
+}
@@ -0,0 +1,24 @@
+package com.socialconnect.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "profile-pictures")
+public class ProfilePictureProperties {
+
+    // Decoding holds the full bitmap (4 bytes per pixel), so workers bound the pipeline's memory
+    private int workerThreads = 1;
+
+    // Uploads waiting for a worker; beyond this, uploads are refused with 503
+    private int queueCapacity = 64;
+
+    // Enforced while the body is read, so larger uploads never reach the disk in full
+    private DataSize maxUploadSize = DataSize.ofMegabytes(5);
+
+    // Checked from the image header before anything is decoded
+    private long maxPixels = 24_000_000;
+
+    private float jpegQuality = 0.85f;
+}
@@ -0,0 +1,28 @@
+package com.socialconnect.config;
+
+import java.time.Duration;
+
+/**
+ * JDBC work done on one thread: statements sent (a batch counts once), rows read
+ * from result sets and time spent executing. {@link #current()} is a running total,
+ * so a scope measures itself as the difference of two snapshots.
+ */
+public record QueryCount(long statements, long rows, long nanos) {
+
+    public static QueryCount current() {
+        return QueryCountingListener.current();
+    }
+
+    public QueryCount since(QueryCount start) {
+        return new QueryCount(statements - start.statements, rows - start.rows, nanos - start.nanos);
+    }
+
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + time().toNanos() / 1_000 + " us";
+    }
+}
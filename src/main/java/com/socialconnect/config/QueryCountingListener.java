@@ -0,0 +1,57 @@
+package com.socialconnect.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Accumulates per-thread statement, row and timing counts from the proxied
+ * {@code DataSource}. A thread runs one statement at a time, so plain fields suffice.
+ */
+class QueryCountingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    static QueryCount current() {
+        Counts counts = COUNTS.get();
+        return new QueryCount(counts.statements, counts.rows, counts.nanos);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        COUNTS.get().startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Counts counts = COUNTS.get();
+        counts.statements++;
+        counts.nanos += System.nanoTime() - counts.startedAt;
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // Result set proxies report every call; a true ResultSet.next() is one row read
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            COUNTS.get().rows++;
+        }
+    }
+
+    private static final class Counts {
+        private long statements;
+        private long rows;
+        private long nanos;
+        private long startedAt;
+    }
+}
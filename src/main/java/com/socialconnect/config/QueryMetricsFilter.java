@@ -0,0 +1,72 @@
+package com.socialconnect.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Records the statements, rows and database time of each request per route, and in
+ * dev adds them as {@code X-Query-Count}, {@code X-Query-Rows} and {@code X-Query-Time-Us}
+ * headers. The body is buffered in that mode so the headers can follow the handler,
+ * except for streaming exports and media files, which are recorded but get no headers.
+ */
+@RequiredArgsConstructor
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCount start = QueryCount.current();
+        ContentCachingResponseWrapper buffered = responseHeaders && !isStreaming(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            QueryCount count = QueryCount.current().since(start);
+            record(request, count);
+            if (buffered != null) {
+                buffered.setHeader("X-Query-Count", Long.toString(count.statements()));
+                buffered.setHeader("X-Query-Rows", Long.toString(count.rows()));
+                buffered.setHeader("X-Query-Time-Us", Long.toString(count.time().toNanos() / 1_000));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    // Buffering would hold the whole export in memory, and would keep media from going out through sendfile
+    private static boolean isStreaming(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.endsWith("/export") || uri.startsWith("/media/");
+    }
+
+    private void record(HttpServletRequest request, QueryCount count) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        DistributionSummary.builder("http.sql.statements")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(count.statements());
+        DistributionSummary.builder("http.sql.rows")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(count.rows());
+        Timer.builder("http.sql.time")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(count.time());
+    }
+}
@@ -0,0 +1,18 @@
+package com.socialconnect.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+
+    // Directory holding the index segments; blank keeps the index in memory and rebuilds it at startup
+    private String indexDir = "";
+
+    // How soon indexed changes become searchable
+    private long refreshIntervalMs = 1_000;
+
+    // How often changes are made durable; anything newer is re-indexed from the database at startup
+    private long commitIntervalMs = 30_000;
+}
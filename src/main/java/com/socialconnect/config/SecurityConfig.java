@@ -1,5 +1,8 @@
 package com.socialconnect.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialconnect.service.TokenService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,9 +13,11 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(AuthProperties.class)
 public class SecurityConfig {
 
     @Bean
@@ -26,21 +31,34 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthProperties authProperties,
+                                                   TokenService tokenService, ObjectMapper objectMapper) throws Exception {
+        boolean tokenMode = authProperties.getMode() == AuthProperties.Mode.TOKEN;
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                // Every post with its author's email, so it is not for ordinary users
+                .requestMatchers("/api/posts/export").hasRole("ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().permitAll()
             )
             .sessionManagement(session -> session
-                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
+                .sessionCreationPolicy(tokenMode ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.IF_REQUIRED)
             )
             .headers(headers -> headers
                 .frameOptions(frameOptions -> frameOptions.disable())
             );
 
+        if (tokenMode) {
+            // Not a bean, so Boot does not also register it as a plain servlet filter
+            http.addFilterBefore(new TokenAuthenticationFilter(tokenService, objectMapper),
+                    UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 }
@@ -0,0 +1,48 @@
+package com.socialconnect.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Records the JDBC work of every public {@code @Service} method, including the
+ * services it calls. Ordered outside the transaction advice so the flush at commit
+ * is counted against the method that caused it.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceQueryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(com.socialconnect.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryCount start = QueryCount.current();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryCount count = QueryCount.current().since(start);
+            String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            DistributionSummary.builder("service.sql.statements")
+                    .tags("class", type, "method", method)
+                    .register(meterRegistry)
+                    .record(count.statements());
+            DistributionSummary.builder("service.sql.rows")
+                    .tags("class", type, "method", method)
+                    .register(meterRegistry)
+                    .record(count.rows());
+            Timer.builder("service.sql.time")
+                    .tags("class", type, "method", method)
+                    .register(meterRegistry)
+                    .record(count.time());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.socialconnect.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    // Boot silently falls back to platform threads below Java 21, so make the effective mode visible
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsEnabled && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true ignored on Java {}; serving requests on platform threads", javaVersion);
+        } else {
+            log.info("Serving requests on {} threads", virtualThreadsEnabled ? "virtual" : "platform");
+        }
+    }
+}
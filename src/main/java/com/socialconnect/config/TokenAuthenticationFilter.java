@@ -0,0 +1,83 @@
+package com.socialconnect.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialconnect.dto.response.ErrorResponse;
+import com.socialconnect.exception.UnauthorizedException;
+import com.socialconnect.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Authenticates {@code Authorization: Bearer} requests from the signed access token
+ * alone. Requests without the header pass through unauthenticated; a bad or expired
+ * token is rejected with 401 so clients know to refresh. The endpoints that never use
+ * the caller's identity, such as refresh itself, are not filtered, so a stale access
+ * token a client still sends cannot lock it out of getting a new one.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final Set<String> UNFILTERED_PATHS =
+            Set.of("/api/auth/register", "/api/auth/login", "/api/auth/refresh", "/api/auth/logout");
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return UNFILTERED_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenService.Claims claims;
+        try {
+            claims = tokenService.verify(header.substring(BEARER_PREFIX.length()), TokenService.Type.ACCESS);
+        } catch (UnauthorizedException e) {
+            writeUnauthorized(request, response, e.getMessage());
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(claims.username(), null,
+                claims.roles().stream().map(SimpleGrantedAuthority::new).toList()));
+        SecurityContextHolder.setContext(context);
+        filterChain.doFilter(request, response);
+    }
+
+    private void writeUnauthorized(HttpServletRequest request, HttpServletResponse response, String message)
+            throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message(message)
+                .error("Unauthorized")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
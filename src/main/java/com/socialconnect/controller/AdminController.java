@@ -0,0 +1,44 @@
+package com.socialconnect.controller;
+
+import com.socialconnect.dto.response.GraphIndexStatsResponse;
+import com.socialconnect.service.FollowService;
+import com.socialconnect.service.LikeCounter;
+import com.socialconnect.service.SocialGraphIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final FollowService followService;
+    private final LikeCounter likeCounter;
+    private final SocialGraphIndex socialGraphIndex;
+
+    @PostMapping("/counters/follows/rebuild")
+    public ResponseEntity<Integer> rebuildFollowCounts() {
+        int updated = followService.rebuildFollowCounts();
+        return ResponseEntity.ok(updated);
+    }
+
+    @PostMapping("/counters/likes/rebuild")
+    public ResponseEntity<Integer> rebuildLikeCounts() {
+        int updated = likeCounter.reconcile();
+        return ResponseEntity.ok(updated);
+    }
+
+    @GetMapping("/graph/stats")
+    public ResponseEntity<GraphIndexStatsResponse> getGraphStats() {
+        GraphIndexStatsResponse response = GraphIndexStatsResponse.builder()
+                .users(socialGraphIndex.userCount())
+                .edges(socialGraphIndex.edgeCount())
+                .footprintBytes(socialGraphIndex.footprintBytes())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -3,16 +3,18 @@ package com.socialconnect.controller;
 import com.socialconnect.dto.request.CreateCommentRequest;
 import com.socialconnect.dto.request.UpdateCommentRequest;
 import com.socialconnect.dto.response.CommentResponse;
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.service.CacheValidator;
 import com.socialconnect.service.CommentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -29,6 +31,23 @@ public class CommentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/{id}/replies")
+    public ResponseEntity<CommentResponse> createReply(@PathVariable Long id, @Valid @RequestBody CreateCommentRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        CommentResponse response = commentService.createReply(id, username, request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CursorPageResponse<CommentResponse>> getReplies(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<CommentResponse> response = commentService.getReplies(id, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CommentResponse> getCommentById(@PathVariable Long id) {
         CommentResponse response = commentService.getCommentById(id);
@@ -52,9 +71,17 @@ public class CommentController {
     }
 
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<CommentResponse>> getCommentsByPost(@PathVariable Long postId) {
-        List<CommentResponse> responses = commentService.getCommentsByPost(postId);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<CursorPageResponse<CommentResponse>> getCommentsByPost(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        CacheValidator validator = commentService.getCommentsValidator(postId);
+        if (request.checkNotModified(validator.eTag(), validator.lastModified())) {
+            return null;
+        }
+        CursorPageResponse<CommentResponse> response = commentService.getCommentsByPost(postId, cursor, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
     }
 }
 
@@ -1,7 +1,10 @@
 package com.socialconnect.controller;
 
+import com.socialconnect.dto.request.BatchIdsRequest;
+import com.socialconnect.dto.response.BatchMutationResponse;
 import com.socialconnect.dto.response.UserListResponse;
 import com.socialconnect.service.FollowService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/follows")
 @RequiredArgsConstructor
@@ -24,6 +30,14 @@ public class FollowController {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchMutationResponse> followUsers(@Valid @RequestBody BatchIdsRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        BatchMutationResponse response = followService.followUsers(request.getIds(), username);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<Void> unfollowUser(@PathVariable Long userId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -33,17 +47,37 @@ public class FollowController {
     }
 
     @GetMapping("/{userId}/followers")
-    public ResponseEntity<UserListResponse> getFollowers(@PathVariable Long userId) {
-        UserListResponse response = followService.getFollowers(userId);
+    public ResponseEntity<UserListResponse> getFollowers(@PathVariable Long userId,
+                                                         @RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        UserListResponse response = followService.getFollowers(userId, after, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{userId}/following")
-    public ResponseEntity<UserListResponse> getFollowing(@PathVariable Long userId) {
-        UserListResponse response = followService.getFollowing(userId);
+    public ResponseEntity<UserListResponse> getFollowing(@PathVariable Long userId,
+                                                         @RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        UserListResponse response = followService.getFollowing(userId, after, limit);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{userId}/followers/ids")
+    public ResponseEntity<long[]> getFollowerIds(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "0") long after,
+                                                 @RequestParam(defaultValue = "1000") int limit) {
+        long[] ids = followService.getFollowerIds(userId, after, limit);
+        return ResponseEntity.ok(ids);
+    }
+
+    @GetMapping("/{userId}/following/ids")
+    public ResponseEntity<long[]> getFollowingIds(@PathVariable Long userId,
+                                                  @RequestParam(defaultValue = "0") long after,
+                                                  @RequestParam(defaultValue = "1000") int limit) {
+        long[] ids = followService.getFollowingIds(userId, after, limit);
+        return ResponseEntity.ok(ids);
+    }
+
     @GetMapping("/{userId}/followers/count")
     public ResponseEntity<Long> getFollowerCount(@PathVariable Long userId) {
         long count = followService.getFollowerCount(userId);
@@ -63,5 +97,12 @@ public class FollowController {
         boolean isFollowing = followService.isFollowing(userId, username);
         return ResponseEntity.ok(isFollowing);
     }
-}
 
+    @GetMapping("/status")
+    public ResponseEntity<Map<Long, Boolean>> getFollowStatuses(@RequestParam List<Long> userIds) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        Map<Long, Boolean> statuses = followService.getFollowStatuses(userIds, username);
+        return ResponseEntity.ok(statuses);
+    }
+}
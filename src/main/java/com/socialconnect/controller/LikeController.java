@@ -1,7 +1,10 @@
 package com.socialconnect.controller;
 
+import com.socialconnect.dto.request.BatchIdsRequest;
+import com.socialconnect.dto.response.BatchMutationResponse;
 import com.socialconnect.dto.response.LikeResponse;
 import com.socialconnect.service.LikeService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/likes")
 @RequiredArgsConstructor
@@ -24,6 +30,14 @@ public class LikeController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchMutationResponse> likePosts(@Valid @RequestBody BatchIdsRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        BatchMutationResponse response = likeService.likePosts(request.getIds(), username);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/post/{postId}")
     public ResponseEntity<Void> unlikePost(@PathVariable Long postId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -45,5 +59,12 @@ public class LikeController {
         boolean isLiked = likeService.isLiked(postId, username);
         return ResponseEntity.ok(isLiked);
     }
-}
 
+    @GetMapping("/status")
+    public ResponseEntity<Map<Long, Boolean>> getLikeStatuses(@RequestParam List<Long> postIds) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        Map<Long, Boolean> statuses = likeService.getLikeStatuses(postIds, username);
+        return ResponseEntity.ok(statuses);
+    }
+}
@@ -0,0 +1,147 @@
+package com.socialconnect.controller;
+
+import com.socialconnect.exception.ResourceNotFoundException;
+import com.socialconnect.service.ProfilePictureStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves stored profile pictures. Their paths are content hashes (or UUIDs for older
+ * uploads) and never change, so responses are cacheable for a year as immutable. On Tomcat
+ * the body is handed to the connector's sendfile, which copies it from the page cache to the
+ * socket without passing through the JVM; elsewhere it falls back to {@code transferTo}.
+ * Single byte ranges are honored; multi-range requests get the whole file.
+ */
+@RestController
+@RequestMapping("/media/profile-pictures")
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final ProfilePictureStore profilePictureStore;
+
+    // GET mappings also answer HEAD
+    @GetMapping("/{shard}/{hash}/{file}")
+    public void getVariant(@PathVariable String shard, @PathVariable String hash, @PathVariable String file,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(shard + "/" + hash + "/" + file, request, response);
+    }
+
+    @GetMapping("/{file}")
+    public void getLegacy(@PathVariable String file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(file, request, response);
+    }
+
+    private void serve(String relativePath, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = profilePictureStore.resolve(relativePath)
+                .orElseThrow(() -> new ResourceNotFoundException("Media not found: " + relativePath));
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        // Same shape as nginx's; the path alone would do, but this also covers a legacy file being replaced
+        String eTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = singleRange(request, eTag);
+        if (range != null) {
+            if (length == 0 || !isSatisfiable(range, length)) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(file, start, count, request, response);
+    }
+
+    // Null when the whole file should be sent: no Range, a stale If-Range, several ranges, or an unparsable header
+    private static HttpRange singleRange(HttpServletRequest request, String eTag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (header == null || (ifRange != null && !ifRange.equals(eTag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) <= range.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void transfer(Path file, long start, long count, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file after this method returns; the end offset is exclusive
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            // transferTo returns 0 at end of file, should the file have shrunk since it was measured
+            long sent = 1;
+            while (remaining > 0 && sent > 0) {
+                sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -2,16 +2,25 @@ package com.socialconnect.controller;
 
 import com.socialconnect.dto.request.CreatePostRequest;
 import com.socialconnect.dto.request.UpdatePostRequest;
+import com.socialconnect.dto.response.CursorPageResponse;
 import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.service.CacheValidator;
+import com.socialconnect.service.ExportFormat;
+import com.socialconnect.service.PostExportService;
 import com.socialconnect.service.PostService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -20,6 +29,7 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final PostExportService postExportService;
 
     @PostMapping
     public ResponseEntity<PostResponse> createPost(@Valid @RequestBody CreatePostRequest request) {
@@ -30,10 +40,22 @@ public class PostController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id) {
+    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id, WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication != null ? authentication.getName() : null;
+        CacheValidator validator = postService.getPostValidator(id, username);
+        if (request.checkNotModified(validator.eTag(), validator.lastModified())) {
+            return null;
+        }
         PostResponse response = postService.getPostById(id, username);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<PostResponse>> getPostsByIds(@RequestParam List<Long> ids) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null ? authentication.getName() : null;
+        List<PostResponse> response = postService.getPostsByIds(ids, username);
         return ResponseEntity.ok(response);
     }
 
@@ -54,25 +76,42 @@ public class PostController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PostResponse>> getUserPosts(@PathVariable Long userId) {
-        List<PostResponse> responses = postService.getUserPosts(userId);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<CursorPageResponse<PostResponse>> getUserPosts(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<PostResponse> response = postService.getUserPosts(userId, cursor, limit);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/feed")
-    public ResponseEntity<List<PostResponse>> getFeed() {
+    public ResponseEntity<CursorPageResponse<PostResponse>> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
-        List<PostResponse> responses = postService.getFeed(username);
-        return ResponseEntity.ok(responses);
+        CursorPageResponse<PostResponse> response = postService.getFeed(username, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    // Written straight to the response in this thread; see PostExportService
+    @GetMapping("/export")
+    public void exportPosts(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+            throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        postExportService.export(exportFormat, response.getOutputStream());
     }
 
     @GetMapping
-    public ResponseEntity<List<PostResponse>> getAllPosts() {
+    public ResponseEntity<CursorPageResponse<PostResponse>> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication != null ? authentication.getName() : null;
-        List<PostResponse> responses = postService.getAllPosts(username);
-        return ResponseEntity.ok(responses);
+        CursorPageResponse<PostResponse> response = postService.getAllPosts(username, cursor, limit);
+        return ResponseEntity.ok(response);
     }
 }
 
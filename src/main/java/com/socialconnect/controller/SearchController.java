@@ -0,0 +1,50 @@
+package com.socialconnect.controller;
+
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.dto.response.UserSuggestionResponse;
+import com.socialconnect.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping("/posts")
+    public ResponseEntity<CursorPageResponse<PostResponse>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null ? authentication.getName() : null;
+        CursorPageResponse<PostResponse> response = searchService.searchPosts(q, username, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<CursorPageResponse<UserResponse>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<UserResponse> response = searchService.searchUsers(q, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    // Typeahead: users whose username, first name, last name or full name starts with q
+    @GetMapping("/users/suggest")
+    public ResponseEntity<List<UserSuggestionResponse>> suggestUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchService.suggestUsers(q, limit));
+    }
+}
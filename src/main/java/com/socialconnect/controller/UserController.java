@@ -1,23 +1,39 @@
 package com.socialconnect.controller;
 
+import com.socialconnect.config.AuthProperties;
 import com.socialconnect.dto.request.LoginRequest;
+import com.socialconnect.dto.request.RefreshTokenRequest;
 import com.socialconnect.dto.request.RegisterRequest;
 import com.socialconnect.dto.request.UpdateProfileRequest;
+import com.socialconnect.dto.response.AuthTokenResponse;
 import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.exception.UnauthorizedException;
+import com.socialconnect.service.CacheValidator;
+import com.socialconnect.service.ProfilePictureService;
+import com.socialconnect.service.TokenService;
 import com.socialconnect.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -25,6 +41,9 @@ public class UserController {
 
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
+    private final AuthProperties authProperties;
+    private final TokenService tokenService;
+    private final ProfilePictureService profilePictureService;
 
     @PostMapping("/register")
     public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -33,11 +52,15 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<UserResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
+        if (authProperties.getMode() == AuthProperties.Mode.TOKEN) {
+            return ResponseEntity.ok(issueTokens(request.getUsername(), authentication.getAuthorities()));
+        }
+
         SecurityContextHolder.getContext().setAuthentication(authentication);
         HttpSession session = httpRequest.getSession(true);
         session.setAttribute("SPRING_SECURITY_CONTEXT", SecurityContextHolder.getContext());
@@ -46,6 +69,22 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthTokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        if (authProperties.getMode() != AuthProperties.Mode.TOKEN) {
+            throw new UnauthorizedException("Token authentication is not enabled");
+        }
+        TokenService.Claims claims = tokenService.verify(request.getRefreshToken(), TokenService.Type.REFRESH);
+        // Reload so deleted users and role changes take effect at the next refresh
+        UserDetails user;
+        try {
+            user = userService.loadUserByUsername(claims.username());
+        } catch (UsernameNotFoundException e) {
+            throw new UnauthorizedException("Invalid token");
+        }
+        return ResponseEntity.ok(issueTokens(user.getUsername(), user.getAuthorities()));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
@@ -65,9 +104,13 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id, WebRequest request) {
+        CacheValidator validator = userService.getUserValidator(id);
+        if (request.checkNotModified(validator.eTag(), validator.lastModified())) {
+            return null;
+        }
         UserResponse response = userService.getUserById(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
     }
 
     @PutMapping("/profile")
@@ -82,8 +125,29 @@ public class UserController {
     public ResponseEntity<UserResponse> uploadProfilePicture(@RequestParam("file") MultipartFile file) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
-        UserResponse response = userService.uploadProfilePicture(username, file);
-        return ResponseEntity.ok(response);
+        // The picture is processed in the background; the body still shows the current one
+        UserResponse response = profilePictureService.upload(username, file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    // The raw body is the image; unlike multipart, it is read once, straight from the socket
+    @PutMapping("/profile/picture")
+    public ResponseEntity<UserResponse> putProfilePicture(HttpServletRequest request) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        UserResponse response = profilePictureService.upload(username, request.getContentType(),
+                request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
-}
 
+    private AuthTokenResponse issueTokens(String username, Collection<? extends GrantedAuthority> authorities) {
+        List<String> roles = authorities.stream().map(GrantedAuthority::getAuthority).toList();
+        return AuthTokenResponse.builder()
+                .tokenType("Bearer")
+                .accessToken(tokenService.issue(username, roles, TokenService.Type.ACCESS))
+                .expiresIn(tokenService.accessTtlSeconds())
+                .refreshToken(tokenService.issue(username, roles, TokenService.Type.REFRESH))
+                .user(userService.getCurrentUser(username))
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.socialconnect.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchIdsRequest {
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = 100, message = "At most 100 ids per request")
+    private List<@NotNull Long> ids;
+}
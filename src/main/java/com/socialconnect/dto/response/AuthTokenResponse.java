@@ -0,0 +1,18 @@
+package com.socialconnect.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthTokenResponse {
+    private String tokenType;
+    private String accessToken;
+    private long expiresIn;
+    private String refreshToken;
+    private UserResponse user;
+}
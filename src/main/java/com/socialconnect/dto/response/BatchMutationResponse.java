@@ -0,0 +1,18 @@
+package com.socialconnect.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchMutationResponse {
+    private List<Long> applied;
+    private List<Long> skipped;
+    private List<Long> notFound;
+}
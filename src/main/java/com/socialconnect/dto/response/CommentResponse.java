@@ -16,6 +16,8 @@ public class CommentResponse {
     private String content;
     private UserResponse author;
     private Long postId;
+    private Long parentId;
+    private Long replyCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
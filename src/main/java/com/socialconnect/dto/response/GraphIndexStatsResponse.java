@@ -0,0 +1,16 @@
+package com.socialconnect.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GraphIndexStatsResponse {
+    private Long users;
+    private Long edges;
+    private Long footprintBytes;
+}
@@ -16,6 +16,7 @@ public class PostResponse {
     private String content;
     private UserResponse author;
     private Long likeCount;
+    private Long commentCount;
     private Boolean isLiked;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
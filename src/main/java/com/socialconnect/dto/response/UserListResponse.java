@@ -14,5 +14,7 @@ import java.util.List;
 public class UserListResponse {
     private List<UserResponse> users;
     private Long totalCount;
+    // Pass as after for the next page; null on the last one
+    private Long nextAfter;
 }
 
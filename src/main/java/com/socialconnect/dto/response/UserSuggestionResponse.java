@@ -0,0 +1,19 @@
+package com.socialconnect.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSuggestionResponse {
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String profilePicture;
+    private int followerCount;
+}
@@ -0,0 +1,43 @@
+package com.socialconnect.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "timeline_entries", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"owner_id", "post_id"})
+}, indexes = {
+    @Index(name = "idx_timeline_owner_created", columnList = "owner_id, created_at, post_id"),
+    @Index(name = "idx_timeline_post", columnList = "post_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "timeline_entries_seq")
+    @SequenceGenerator(name = "timeline_entries_seq", sequenceName = "timeline_entries_seq", allocationSize = 50)
+    private Long id;
+
+    // User whose home timeline this entry belongs to
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    private Post post;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // Copied from the post so timelines can be read in order without joining posts
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
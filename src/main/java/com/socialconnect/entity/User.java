@@ -5,13 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_profile_picture", columnList = "profile_picture")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +22,8 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 50)
@@ -43,6 +47,24 @@ public class User {
     @Column(name = "profile_picture")
     private String profilePicture;
 
+    // Follow counters are maintained with bulk updates in FollowService, never written through the entity
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private Long followerCount = 0L;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "following_count", nullable = false, updatable = false)
+    private Long followingCount = 0L;
+
+    // Set once this author's posts stop being fanned out and never cleared, so posts missing from
+    // timelines keep being merged at read time even if the author drops back below the threshold
+    @Builder.Default
+    @ColumnDefault("false")
+    @Column(name = "timeline_pulled", nullable = false, updatable = false)
+    private Boolean timelinePulled = false;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -50,5 +72,11 @@ public class User {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Bumped on every entity update and part of the ETag; the bulk follow counter updates leave it alone
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
 
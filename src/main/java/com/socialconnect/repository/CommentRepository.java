@@ -1,14 +1,62 @@
 package com.socialconnect.repository;
 
 import com.socialconnect.entity.Comment;
-import com.socialconnect.entity.Post;
+import com.socialconnect.repository.projection.CommentListVersion;
+import com.socialconnect.repository.projection.CommentView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByPostOrderByCreatedAtAsc(Post post);
-}
+    // Authors come from the same join as summary columns; each comment would otherwise load its author on its own
+    String COMMENT_VIEW = "SELECT new com.socialconnect.repository.projection.CommentView(" +
+                          "c.id, c.content, c.post.id, c.parent.id, c.replyCount, c.createdAt, c.updatedAt, " +
+                          "a.id, a.username, a.email, a.firstName, a.lastName, a.profilePicture, " +
+                          "a.createdAt, a.updatedAt) " +
+                          "FROM Comment c JOIN c.author a ";
+
+    // Top-level comments only; replies are paged per parent
+    @Query(COMMENT_VIEW + "WHERE c.post.id = :postId AND c.parent IS NULL ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentView> findByPostIdOrderByCreatedAtAscIdAsc(@Param("postId") Long postId, Pageable pageable);
+
+    @Query(COMMENT_VIEW + "WHERE c.post.id = :postId AND c.parent IS NULL " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentView> findByPostIdAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Pageable pageable);
+
+    @Query(COMMENT_VIEW + "WHERE c.parent.id = :parentId ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentView> findRepliesOrderByCreatedAtAscIdAsc(@Param("parentId") Long parentId, Pageable pageable);
+
+    @Query(COMMENT_VIEW + "WHERE c.parent.id = :parentId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentView> findRepliesAfter(@Param("parentId") Long parentId, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id, Pageable pageable);
 
+    @Query("SELECT c.id FROM Comment c WHERE c.parent.id IN :parentIds")
+    List<Long> findIdsByParentIdIn(@Param("parentIds") Collection<Long> parentIds);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :id")
+    int incrementReplyCount(@Param("id") Long id, @Param("delta") long delta);
+
+    // Empty when the post does not exist; a post without comments yields a zero count
+    @Query("SELECT new com.socialconnect.repository.projection.CommentListVersion(" +
+           "COUNT(c), COALESCE(MAX(c.id), 0), COALESCE(SUM(c.version), 0), COALESCE(SUM(a.version), 0)) " +
+           "FROM Post p LEFT JOIN Comment c ON c.post = p LEFT JOIN c.author a WHERE p.id = :postId GROUP BY p.id")
+    Optional<CommentListVersion> findListVersionByPostId(@Param("postId") Long postId);
+}
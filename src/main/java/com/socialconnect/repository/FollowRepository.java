@@ -2,7 +2,10 @@ package com.socialconnect.repository;
 
 import com.socialconnect.entity.Follow;
 import com.socialconnect.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,7 +17,8 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     boolean existsByFollowerAndFollowing(User follower, User following);
     List<Follow> findByFollower(User follower);
     List<Follow> findByFollowing(User following);
-    long countByFollower(User follower);
-    long countByFollowing(User following);
+
+    @Query("SELECT f.id, f.follower.id, f.following.id FROM Follow f WHERE f.id > :afterId ORDER BY f.id")
+    List<Object[]> findEdgesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
 
@@ -2,21 +2,110 @@ package com.socialconnect.repository;
 
 import com.socialconnect.entity.Post;
 import com.socialconnect.entity.User;
+import com.socialconnect.repository.projection.PostExportRow;
+import com.socialconnect.repository.projection.PostVersion;
+import com.socialconnect.repository.projection.PostView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    List<Post> findByAuthorOrderByCreatedAtDesc(User author);
-    
-    @Query("SELECT p FROM Post p WHERE p.author IN :followedUsers ORDER BY p.createdAt DESC")
-    List<Post> findFeedPosts(@Param("followedUsers") List<User> followedUsers);
-    
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
-    List<Post> findAllOrderByCreatedAtDesc();
-}
+    // List reads select PostView rows; p.author.id is the foreign key column, so users are never joined
+    String POST_VIEW = "SELECT new com.socialconnect.repository.projection.PostView(" +
+                       "p.id, p.content, p.author.id, p.likeCount, p.commentCount, p.createdAt, p.updatedAt) ";
+
+    @Query(POST_VIEW + "FROM Post p WHERE p.author.id = :authorId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostView> findByAuthorIdOrderByCreatedAtDescIdDesc(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(POST_VIEW + "FROM Post p WHERE p.author.id = :authorId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostView> findByAuthorIdBefore(@Param("authorId") Long authorId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.author.id = :authorId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Object[]> findRecentKeysByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(POST_VIEW + "FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostView> findLatest(Pageable pageable);
+
+    @Query(POST_VIEW + "FROM Post p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostView> findLatestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.author = :author AND NOT EXISTS " +
+           "(SELECT t FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.post = p) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findBackfillPosts(@Param("author") User author, @Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.author.id IN :authorIds AND NOT EXISTS " +
+           "(SELECT t FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.post = p) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findBackfillPostsByAuthorIds(@Param("authorIds") Collection<Long> authorIds, @Param("ownerId") Long ownerId,
+                                            Pageable pageable);
 
+    // A null viewerId matches no like
+    @Query("SELECT new com.socialconnect.repository.projection.PostVersion(" +
+           "p.version, a.version, p.likeCount, p.commentCount, " +
+           "(SELECT COUNT(l) FROM Like l WHERE l.post = p AND l.user.id = :viewerId)) " +
+           "FROM Post p JOIN p.author a WHERE p.id = :id")
+    Optional<PostVersion> findVersionById(@Param("id") Long id, @Param("viewerId") Long viewerId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :id")
+    int incrementCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = (SELECT COUNT(l) FROM Like l WHERE l.post = p) " +
+           "WHERE p.likeCount <> (SELECT COUNT(l) FROM Like l WHERE l.post = p)")
+    int reconcileLikeCounts();
+
+    // Forward-only over the whole table; the caller must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.socialconnect.repository.projection.PostExportRow(" +
+           "p.id, p.content, p.likeCount, p.commentCount, p.createdAt, p.updatedAt, a.id, a.username, a.email, " +
+           "a.firstName, a.lastName, a.profilePicture, a.createdAt, a.updatedAt) " +
+           "FROM Post p JOIN p.author a ORDER BY p.createdAt DESC, p.id DESC")
+    Stream<PostExportRow> streamAllForExport();
+
+    // Batches for (re)indexing in id order; generated rows have no updatedAt, so createdAt stands in
+    @Query(POST_VIEW + "FROM Post p WHERE p.id > :afterId AND COALESCE(p.updatedAt, p.createdAt) > :since ORDER BY p.id")
+    List<PostView> findViewsChangedAfter(@Param("afterId") Long afterId, @Param("since") LocalDateTime since,
+                                         Pageable pageable);
+
+    @Query(POST_VIEW + "FROM Post p WHERE p.id IN :ids")
+    List<PostView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    default List<PostView> findAllByIdInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Long, PostView> posts = findViewsByIdIn(Arrays.stream(ids).boxed().collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(PostView::id, Function.identity()));
+        return Arrays.stream(ids)
+                .mapToObj(posts::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,52 @@
+package com.socialconnect.repository;
+
+import com.socialconnect.entity.TimelineEntry;
+import com.socialconnect.repository.projection.PostView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    @Query("SELECT new com.socialconnect.repository.projection.PostView(" +
+           "p.id, p.content, p.author.id, p.likeCount, p.commentCount, p.createdAt, p.updatedAt) " +
+           "FROM TimelineEntry t JOIN t.post p WHERE t.ownerId = :ownerId ORDER BY t.createdAt DESC, t.post.id DESC")
+    List<PostView> findTimelinePosts(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT new com.socialconnect.repository.projection.PostView(" +
+           "p.id, p.content, p.author.id, p.likeCount, p.commentCount, p.createdAt, p.updatedAt) " +
+           "FROM TimelineEntry t JOIN t.post p WHERE t.ownerId = :ownerId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.post.id < :postId)) " +
+           "ORDER BY t.createdAt DESC, t.post.id DESC")
+    List<PostView> findTimelinePostsBefore(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("postId") Long postId, Pageable pageable);
+
+    @Query(value = "SELECT owner_id FROM timeline_entries GROUP BY owner_id HAVING COUNT(*) > :maxEntries",
+           nativeQuery = true)
+    List<Long> findOwnersWithMoreThan(@Param("maxEntries") int maxEntries);
+
+    // With an offset of N, the newest entry past the first N
+    @Query("SELECT t FROM TimelineEntry t WHERE t.ownerId = :ownerId ORDER BY t.createdAt DESC, t.post.id DESC")
+    List<TimelineEntry> findByOwnerIdNewestFirst(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :ownerId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.post.id <= :postId))")
+    int deleteByOwnerIdUpTo(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt,
+                            @Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.post.id = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.authorId = :authorId")
+    void deleteByOwnerIdAndAuthorId(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+}
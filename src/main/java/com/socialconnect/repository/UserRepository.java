@@ -1,9 +1,17 @@
 package com.socialconnect.repository;
 
 import com.socialconnect.entity.User;
+import com.socialconnect.repository.projection.UserSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +20,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    boolean existsByProfilePicture(String profilePicture);
+
+    @Query("SELECT new com.socialconnect.repository.projection.UserSummary(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.profilePicture, u.createdAt, u.updatedAt) " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.socialconnect.repository.projection.UserSummary(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.profilePicture, u.createdAt, u.updatedAt) " +
+           "FROM User u WHERE u.id > :afterId AND COALESCE(u.updatedAt, u.createdAt) > :since ORDER BY u.id")
+    List<UserSummary> findSummariesChangedAfter(@Param("afterId") Long afterId, @Param("since") LocalDateTime since,
+                                                Pageable pageable);
+
+    @Query("SELECT new com.socialconnect.repository.projection.UserSummary(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.profilePicture, u.createdAt, u.updatedAt) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :id")
+    Optional<Long> findFollowerCountById(@Param("id") Long id);
+
+    @Query("SELECT u.followingCount FROM User u WHERE u.id = :id")
+    Optional<Long> findFollowingCountById(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.timelinePulled = true")
+    List<Long> findTimelinePulledIds();
+
+    @Modifying
+    @Query("UPDATE User u SET u.timelinePulled = true WHERE u.id = :id")
+    int markTimelinePulled(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta WHERE u.id = :id")
+    int adjustFollowerCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta WHERE u.id IN :ids")
+    int adjustFollowerCounts(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount + :delta WHERE u.id = :id")
+    int adjustFollowingCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET " +
+           "u.followerCount = (SELECT COUNT(f) FROM Follow f WHERE f.following = u), " +
+           "u.followingCount = (SELECT COUNT(f) FROM Follow f WHERE f.follower = u)")
+    int rebuildFollowCounts();
 }
 
@@ -0,0 +1,9 @@
+package com.socialconnect.repository.projection;
+
+/**
+ * Aggregate over all comments of a post that changes whenever any page of them would:
+ * the count and highest id catch inserts and deletes, and the version sums catch edits
+ * to a comment or to any commenter's profile.
+ */
+public record CommentListVersion(Long count, Long maxId, Long versionSum, Long authorVersionSum) {
+}
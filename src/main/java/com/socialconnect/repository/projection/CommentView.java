@@ -0,0 +1,19 @@
+package com.socialconnect.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only comment row with its author's summary columns from the same join.
+ */
+public record CommentView(Long id, String content, Long postId, Long parentId, Long replyCount,
+                          LocalDateTime createdAt, LocalDateTime updatedAt, UserSummary author) {
+
+    // JPQL constructor expressions cannot nest, so the query passes the author's columns flat
+    public CommentView(Long id, String content, Long postId, Long parentId, Long replyCount, LocalDateTime createdAt,
+                       LocalDateTime updatedAt, Long authorId, String username, String email, String firstName,
+                       String lastName, String profilePicture, LocalDateTime authorCreatedAt,
+                       LocalDateTime authorUpdatedAt) {
+        this(id, content, postId, parentId, replyCount, createdAt, updatedAt, new UserSummary(authorId, username,
+                email, firstName, lastName, profilePicture, authorCreatedAt, authorUpdatedAt));
+    }
+}
@@ -0,0 +1,19 @@
+package com.socialconnect.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A post and its author's summary from one joined row, so an export needs no
+ * further queries while its result set is open.
+ */
+public record PostExportRow(PostView post, UserSummary author) {
+
+    // JPQL constructor expressions cannot nest, so the query passes both sets of columns flat
+    public PostExportRow(Long id, String content, Long likeCount, Long commentCount, LocalDateTime createdAt,
+                         LocalDateTime updatedAt, Long authorId, String username, String email, String firstName,
+                         String lastName, String profilePicture, LocalDateTime authorCreatedAt,
+                         LocalDateTime authorUpdatedAt) {
+        this(new PostView(id, content, authorId, likeCount, commentCount, createdAt, updatedAt), new UserSummary(authorId,
+                username, email, firstName, lastName, profilePicture, authorCreatedAt, authorUpdatedAt));
+    }
+}
@@ -0,0 +1,8 @@
+package com.socialconnect.repository.projection;
+
+/**
+ * What a single post response depends on besides its id: the post and author versions,
+ * the stored like and comment counts and whether the viewer has liked it ({@code 0} or {@code 1}).
+ */
+public record PostVersion(Long version, Long authorVersion, Long likeCount, Long commentCount, Long likedByViewer) {
+}
@@ -0,0 +1,18 @@
+package com.socialconnect.repository.projection;
+
+import com.socialconnect.entity.Post;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row for post lists: the author is carried as an id and resolved in one
+ * batch by {@code PostHydrator}, so list queries never join or load users.
+ */
+public record PostView(Long id, String content, Long authorId, Long likeCount, Long commentCount,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static PostView of(Post post) {
+        return new PostView(post.getId(), post.getContent(), post.getAuthor().getId(), post.getLikeCount(),
+                post.getCommentCount(), post.getCreatedAt(), post.getUpdatedAt());
+    }
+}
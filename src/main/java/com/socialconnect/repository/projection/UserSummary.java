@@ -0,0 +1,11 @@
+package com.socialconnect.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * The user columns shown wherever a user is embedded in a list: no password hash
+ * and no bio, which only the profile endpoints return.
+ */
+public record UserSummary(Long id, String username, String email, String firstName, String lastName,
+                          String profilePicture, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,30 @@
+package com.socialconnect.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Validates the id lists accepted by the batch endpoints, dropping duplicates and
+ * nulls while keeping the caller's order.
+ */
+final class BatchIds {
+
+    static final int MAX_SIZE = 100;
+
+    private BatchIds() {
+    }
+
+    static Set<Long> of(Collection<Long> ids) {
+        Set<Long> distinct = ids == null ? new LinkedHashSet<>() : new LinkedHashSet<>(ids);
+        distinct.removeIf(Objects::isNull);
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (distinct.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_SIZE + " ids per request");
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,28 @@
+package com.socialconnect.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Validators for a conditional GET, computed without building the response body.
+ * The ETag joins every version and count the body depends on, so equal tags mean
+ * byte-identical bodies. {@code lastModified} is {@code -1} when no timestamp covers
+ * every change to the body, in which case only the ETag is sent.
+ */
+public record CacheValidator(String eTag, long lastModified) {
+
+    static CacheValidator of(Object... parts) {
+        return new CacheValidator(tag(parts), -1);
+    }
+
+    static CacheValidator of(LocalDateTime lastModified, Object... parts) {
+        return new CacheValidator(tag(parts), lastModified == null ? -1
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static String tag(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+}
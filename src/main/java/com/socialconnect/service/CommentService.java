@@ -3,6 +3,7 @@ package com.socialconnect.service;
 import com.socialconnect.dto.request.CreateCommentRequest;
 import com.socialconnect.dto.request.UpdateCommentRequest;
 import com.socialconnect.dto.response.CommentResponse;
+import com.socialconnect.dto.response.CursorPageResponse;
 import com.socialconnect.dto.response.UserResponse;
 import com.socialconnect.entity.Comment;
 import com.socialconnect.entity.Post;
@@ -11,10 +12,15 @@ import com.socialconnect.exception.ResourceNotFoundException;
 import com.socialconnect.exception.UnauthorizedException;
 import com.socialconnect.repository.CommentRepository;
 import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.projection.CommentListVersion;
+import com.socialconnect.repository.projection.CommentView;
+import com.socialconnect.repository.projection.UserSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -38,10 +44,30 @@ public class CommentService {
                 .author(author)
                 .build();
 
-        comment = commentRepository.save(comment);
+        comment = commentRepository.saveAndFlush(comment);
+        postRepository.incrementCommentCount(postId, 1);
         return mapToResponse(comment);
     }
 
+    @Transactional
+    public CommentResponse createReply(Long parentId, String username, CreateCommentRequest request) {
+        Comment parent = commentRepository.findById(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + parentId));
+        User author = userService.getEntityByUsername(username);
+
+        Comment reply = Comment.builder()
+                .content(request.getContent())
+                .post(parent.getPost())
+                .author(author)
+                .parent(parent)
+                .build();
+
+        reply = commentRepository.saveAndFlush(reply);
+        commentRepository.incrementReplyCount(parentId, 1);
+        postRepository.incrementCommentCount(parent.getPost().getId(), 1);
+        return mapToResponse(reply);
+    }
+
     @Transactional(readOnly = true)
     public CommentResponse getCommentById(Long id) {
         Comment comment = commentRepository.findById(id)
@@ -74,17 +100,92 @@ public class CommentService {
             throw new UnauthorizedException("You are not authorized to delete this comment");
         }
 
-        commentRepository.delete(comment);
+        // Replies go with their comment, one query per level of the thread
+        List<List<Long>> levels = new ArrayList<>();
+        for (List<Long> level = List.of(id); !level.isEmpty(); level = commentRepository.findIdsByParentIdIn(level)) {
+            levels.add(level);
+        }
+        // Deepest level first, so no row is deleted while a reply still references it
+        long deleted = 0;
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            deleted += commentRepository.deleteAllByIdIn(levels.get(i));
+        }
+        if (comment.getParent() != null) {
+            commentRepository.incrementReplyCount(comment.getParent().getId(), -1);
+        }
+        postRepository.incrementCommentCount(comment.getPost().getId(), -deleted);
     }
 
+    // Covers every page of the post's comments; deletions leave no timestamp, so there is no Last-Modified
     @Transactional(readOnly = true)
-    public List<CommentResponse> getCommentsByPost(Long postId) {
-        Post post = postRepository.findById(postId)
+    public CacheValidator getCommentsValidator(Long postId) {
+        CommentListVersion version = commentRepository.findListVersionByPostId(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
-        List<Comment> comments = commentRepository.findByPostOrderByCreatedAtAsc(post);
-        return comments.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return CacheValidator.of(postId, version.count(), version.maxId(), version.versionSum(),
+                version.authorVersionSum());
+    }
+
+    // Top-level comments; each carries its replyCount, and replies are paged by getReplies
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentResponse> getCommentsByPost(Long postId, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<CommentView> comments = after == null
+                ? commentRepository.findByPostIdOrderByCreatedAtAscIdAsc(postId, page)
+                : commentRepository.findByPostIdAfter(postId, after.getCreatedAt(), after.getId(), page);
+        // Only an empty page can belong to a missing post
+        if (comments.isEmpty() && !postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found with id: " + postId);
+        }
+        return PageCursor.toPage(comments, pageSize,
+                comment -> new PageCursor(comment.createdAt(), comment.id()),
+                rows -> rows.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentResponse> getReplies(Long commentId, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<CommentView> replies = after == null
+                ? commentRepository.findRepliesOrderByCreatedAtAscIdAsc(commentId, page)
+                : commentRepository.findRepliesAfter(commentId, after.getCreatedAt(), after.getId(), page);
+        if (replies.isEmpty() && !commentRepository.existsById(commentId)) {
+            throw new ResourceNotFoundException("Comment not found with id: " + commentId);
+        }
+        return PageCursor.toPage(replies, pageSize,
+                reply -> new PageCursor(reply.createdAt(), reply.id()),
+                rows -> rows.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    private CommentResponse mapToResponse(CommentView comment) {
+        UserSummary author = comment.author();
+        UserResponse authorResponse = UserResponse.builder()
+                .id(author.id())
+                .username(author.username())
+                .email(author.email())
+                .firstName(author.firstName())
+                .lastName(author.lastName())
+                .profilePicture(ProfilePictureVariant.SMALL.url(author.profilePicture()))
+                .createdAt(author.createdAt())
+                .updatedAt(author.updatedAt())
+                .build();
+
+        return CommentResponse.builder()
+                .id(comment.id())
+                .content(comment.content())
+                .author(authorResponse)
+                .postId(comment.postId())
+                .parentId(comment.parentId())
+                .replyCount(comment.replyCount())
+                .createdAt(comment.createdAt())
+                .updatedAt(comment.updatedAt())
+                .build();
     }
 
     private CommentResponse mapToResponse(Comment comment) {
@@ -95,7 +196,7 @@ public class CommentService {
                 .firstName(comment.getAuthor().getFirstName())
                 .lastName(comment.getAuthor().getLastName())
                 .bio(comment.getAuthor().getBio())
-                .profilePicture(comment.getAuthor().getProfilePicture())
+                .profilePicture(ProfilePictureVariant.SMALL.url(comment.getAuthor().getProfilePicture()))
                 .createdAt(comment.getAuthor().getCreatedAt())
                 .updatedAt(comment.getAuthor().getUpdatedAt())
                 .build();
@@ -105,6 +206,8 @@ public class CommentService {
                 .content(comment.getContent())
                 .author(authorResponse)
                 .postId(comment.getPost().getId())
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
+                .replyCount(comment.getReplyCount())
                 .createdAt(comment.getCreatedAt())
                 .updatedAt(comment.getUpdatedAt())
                 .build();
@@ -0,0 +1,255 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.DatasetProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fills an empty database with a reproducible synthetic social network when
+ * {@code dataset.generate=true}. Follow targets are Zipf-distributed over a shuffled
+ * popularity ranking, and per-user follow and post counts and per-post like and comment
+ * counts are log-normal, so a few accounts and posts dominate as they do in production.
+ * Rows go in through JDBC batches with explicit ids, and timelines are materialized with
+ * set-based inserts; the id sequences are then moved past the loaded rows.
+ * Every user is {@code user<n>} with password {@code password}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DatasetProperties.class)
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final String PASSWORD = "password";
+    private static final double SIGMA = 1.0;
+    // Matches the allocationSize of the entities' sequence generators
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final DatasetProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final FollowService followService;
+    private final LikeCounter likeCounter;
+    private final SocialGraphIndex socialGraphIndex;
+    private final SearchIndex searchIndex;
+    private final UserAutocompleteIndex userAutocompleteIndex;
+
+    @Value("${feed.fanout.follower-threshold}")
+    private int fanOutFollowerThreshold;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isGenerate()) {
+            return;
+        }
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping dataset generation: database already has {} users", existing);
+            return;
+        }
+        generate();
+    }
+
+    public void generate() {
+        long started = System.nanoTime();
+        Random random = new Random(properties.getSeed());
+        int users = properties.getUsers();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime historyStart = now.minusDays(properties.getHistoryDays());
+        long historyMinutes = properties.getHistoryDays() * 24L * 60;
+
+        String password = passwordEncoder.encode(PASSWORD);
+        Batch userRows = new Batch("users", "username, email, password, first_name, last_name, bio, "
+                + "follower_count, following_count, created_at", "?, ?, ?, ?, ?, ?, 0, 0, ?");
+        for (int i = 0; i < users; i++) {
+            userRows.add("user" + i, "user" + i + "@example.com", password, "First" + i, "Last" + i,
+                    "Synthetic user " + i, Timestamp.valueOf(historyStart.minusDays(1)));
+        }
+        userRows.flush();
+        long firstUserId = userRows.firstId;
+
+        // Rank r maps to user (r * stride + offset) mod n, a bijection when stride is coprime to n
+        long stride = coprimeStride(users, random);
+        long offset = random.nextInt(users);
+        Batch followRows = new Batch("follows", "follower_id, following_id, created_at", "?, ?, ?");
+        Set<Integer> targets = new HashSet<>();
+        for (int follower = 0; follower < users; follower++) {
+            int count = Math.min(users - 1, heavyTailed(random, properties.getFollowsPerUser()));
+            targets.clear();
+            while (targets.size() < count) {
+                int target = (int) ((zipfRank(random, users, properties.getFollowSkew()) * stride + offset) % users);
+                if (target != follower) {
+                    targets.add(target);
+                }
+            }
+            for (int target : targets) {
+                followRows.add(firstUserId + follower, firstUserId + target, Timestamp.valueOf(historyStart));
+            }
+        }
+        followRows.flush();
+
+        int[] authors = postAuthors(random, users);
+        Batch postRows = new Batch("posts", "content, author_id, like_count, created_at", "?, ?, 0, ?");
+        LocalDateTime[] postTimes = new LocalDateTime[authors.length];
+        for (int i = 0; i < authors.length; i++) {
+            postTimes[i] = historyStart.plusMinutes(i * historyMinutes / Math.max(1, authors.length));
+            postRows.add("Synthetic post " + i + " by user" + authors[i], firstUserId + authors[i], Timestamp.valueOf(postTimes[i]));
+        }
+        postRows.flush();
+        long firstPostId = postRows.firstId;
+
+        Batch likeRows = new Batch("likes", "post_id, user_id, created_at", "?, ?, ?");
+        Batch commentRows = new Batch("comments", "content, post_id, author_id, created_at", "?, ?, ?, ?");
+        Set<Integer> likers = new HashSet<>();
+        for (int i = 0; i < authors.length; i++) {
+            long postId = firstPostId + i;
+            int likes = Math.min(users, heavyTailed(random, properties.getLikesPerPost()));
+            likers.clear();
+            while (likers.size() < likes) {
+                likers.add(random.nextInt(users));
+            }
+            for (int liker : likers) {
+                likeRows.add(postId, firstUserId + liker, Timestamp.valueOf(postTimes[i].plusMinutes(random.nextInt(60))));
+            }
+            int comments = heavyTailed(random, properties.getCommentsPerPost());
+            for (int c = 0; c < comments; c++) {
+                commentRows.add("Synthetic comment " + c + " on post " + i, postId, firstUserId + random.nextInt(users),
+                        Timestamp.valueOf(postTimes[i].plusMinutes(1 + random.nextInt(120))));
+            }
+        }
+        likeRows.flush();
+        commentRows.flush();
+
+        followService.rebuildFollowCounts();
+        likeCounter.reconcile();
+        jdbcTemplate.update("UPDATE posts p SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)");
+        // Authors above the fan-out threshold are pulled at read time, as TimelineService.fanOut does
+        long firstTimelineId = nextId("timeline_entries");
+        int timeline = jdbcTemplate.update("INSERT INTO timeline_entries (id, owner_id, post_id, author_id, created_at) "
+                + "SELECT ? + ROW_NUMBER() OVER () - 1, f.follower_id, p.id, p.author_id, p.created_at FROM posts p "
+                + "JOIN follows f ON f.following_id = p.author_id "
+                + "JOIN users u ON u.id = p.author_id WHERE u.follower_count <= ?", firstTimelineId, fanOutFollowerThreshold);
+        timeline += jdbcTemplate.update("INSERT INTO timeline_entries (id, owner_id, post_id, author_id, created_at) "
+                + "SELECT ? + ROW_NUMBER() OVER () - 1, p.author_id, p.id, p.author_id, p.created_at FROM posts p",
+                firstTimelineId + timeline);
+        jdbcTemplate.update("UPDATE users SET timeline_pulled = TRUE WHERE follower_count > ?", fanOutFollowerThreshold);
+        for (String table : List.of("users", "follows", "posts", "likes", "comments", "timeline_entries")) {
+            restartSequence(table);
+        }
+        socialGraphIndex.load();
+        searchIndex.rebuild();
+        userAutocompleteIndex.load();
+
+        log.info("Generated dataset: {} users, {} follows, {} posts, {} likes, {} comments, {} timeline entries in {} s",
+                users, followRows.count, authors.length, likeRows.count, commentRows.count, timeline,
+                (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    // Author of each post, in creation order: per-user counts are heavy-tailed, then shuffled together
+    private int[] postAuthors(Random random, int users) {
+        int[] counts = new int[users];
+        int total = 0;
+        for (int u = 0; u < users; u++) {
+            counts[u] = heavyTailed(random, properties.getPostsPerUser());
+            total += counts[u];
+        }
+        int[] authors = new int[total];
+        int next = 0;
+        for (int u = 0; u < users; u++) {
+            for (int c = 0; c < counts[u]; c++) {
+                authors[next++] = u;
+            }
+        }
+        for (int i = authors.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = authors[i];
+            authors[i] = authors[j];
+            authors[j] = swap;
+        }
+        return authors;
+    }
+
+    private long nextId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+    }
+
+    // Rows bypass Hibernate with explicit ids, so move each pooled sequence past them as db/pooled-sequences.sql does
+    private void restartSequence(String table) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + "
+                + ID_ALLOCATION_SIZE + " FROM " + table + ")");
+    }
+
+    // Log-normal with the given mean, rounded; sigma 1 gives roughly a 10x spread between p50 and p99
+    private static int heavyTailed(Random random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        return (int) Math.round(mean * Math.exp(SIGMA * random.nextGaussian() - SIGMA * SIGMA / 2));
+    }
+
+    // Inverse-CDF sample of a continuous power law over ranks [0, n)
+    private static long zipfRank(Random random, int n, double skew) {
+        double u = random.nextDouble();
+        double rank = Math.abs(skew - 1.0) < 1e-9
+                ? Math.exp(u * Math.log(n + 1.0))
+                : Math.pow((Math.pow(n + 1.0, 1 - skew) - 1) * u + 1, 1 / (1 - skew));
+        return Math.min(n - 1, (long) rank - 1);
+    }
+
+    private static long coprimeStride(int n, Random random) {
+        long stride = n / 2 + 1 + random.nextInt(Math.max(1, n / 2));
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    // Assigns consecutive ids from the table's current maximum, prepended to each row
+    private final class Batch {
+        private final String sql;
+        private final long firstId;
+        private final List<Object[]> rows = new ArrayList<>();
+        private long count;
+
+        Batch(String table, String columns, String values) {
+            this.sql = "INSERT INTO " + table + " (id, " + columns + ") VALUES (?, " + values + ")";
+            this.firstId = nextId(table);
+        }
+
+        void add(Object... values) {
+            Object[] row = new Object[values.length + 1];
+            row[0] = firstId + count;
+            System.arraycopy(values, 0, row, 1, values.length);
+            rows.add(row);
+            count++;
+            if (rows.size() == properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.socialconnect.service;
 
+import com.socialconnect.dto.response.BatchMutationResponse;
 import com.socialconnect.dto.response.UserListResponse;
 import com.socialconnect.dto.response.UserResponse;
 import com.socialconnect.entity.Follow;
@@ -7,32 +8,43 @@ import com.socialconnect.entity.User;
 import com.socialconnect.exception.ResourceNotFoundException;
 import com.socialconnect.repository.FollowRepository;
 import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.UserSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FollowService {
 
+    public static final int MAX_ID_PAGE_SIZE = 1000;
+
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final TimelineService timelineService;
+    private final SocialGraphIndex socialGraphIndex;
 
     @Transactional
     public void followUser(Long userId, String username) {
         User follower = userService.getEntityByUsername(username);
-        User following = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        User following = userService.getEntityById(userId);
 
         if (follower.getId().equals(following.getId())) {
             throw new IllegalArgumentException("Cannot follow yourself");
         }
 
-        if (followRepository.existsByFollowerAndFollowing(follower, following)) {
+        if (socialGraphIndex.isFollowing(follower.getId(), following.getId())) {
             throw new IllegalArgumentException("Already following this user");
         }
 
@@ -41,83 +53,185 @@ public class FollowService {
                 .following(following)
                 .build();
 
-        followRepository.save(follow);
+        try {
+            followRepository.saveAndFlush(follow);
+        } catch (DataIntegrityViolationException e) {
+            // Followed through another node, or concurrently, before this node's index saw it
+            throw new IllegalArgumentException("Already following this user");
+        }
+        userRepository.adjustFollowingCount(follower.getId(), 1);
+        userRepository.adjustFollowerCount(following.getId(), 1);
+        timelineService.backfill(follower, following);
+        AfterCommit.run(() -> socialGraphIndex.addEdge(follower.getId(), following.getId()));
+    }
+
+    /**
+     * Follows every listed user not followed yet. Existence and current follow state
+     * come from {@link SocialGraphIndex}, so the writes are a constant set of
+     * statements: one batched insert, two counter updates and one combined backfill.
+     * A follow the index has not seen yet fails the unique constraint, which is
+     * reported as a 409 and leaves the whole batch unapplied.
+     */
+    @Transactional
+    public BatchMutationResponse followUsers(List<Long> userIds, String username) {
+        User follower = userService.getEntityByUsername(username);
+
+        List<Long> applied = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        List<Follow> follows = new ArrayList<>();
+        for (Long userId : BatchIds.of(userIds)) {
+            if (!userExists(userId)) {
+                notFound.add(userId);
+            } else if (userId.equals(follower.getId()) || socialGraphIndex.isFollowing(follower.getId(), userId)) {
+                skipped.add(userId);
+            } else {
+                applied.add(userId);
+                follows.add(Follow.builder().follower(follower).following(userRepository.getReferenceById(userId)).build());
+            }
+        }
+
+        if (!applied.isEmpty()) {
+            followRepository.saveAllAndFlush(follows);
+            userRepository.adjustFollowingCount(follower.getId(), applied.size());
+            userRepository.adjustFollowerCounts(applied, 1);
+            timelineService.backfill(follower, applied);
+            AfterCommit.run(() -> applied.forEach(userId -> socialGraphIndex.addEdge(follower.getId(), userId)));
+        }
+        return BatchMutationResponse.builder()
+                .applied(applied)
+                .skipped(skipped)
+                .notFound(notFound)
+                .build();
     }
 
     @Transactional
     public void unfollowUser(Long userId, String username) {
         User follower = userService.getEntityByUsername(username);
-        User following = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        User following = userService.getEntityById(userId);
 
         Follow follow = followRepository.findByFollowerAndFollowing(follower, following)
                 .orElseThrow(() -> new ResourceNotFoundException("Follow relationship not found"));
 
         followRepository.delete(follow);
+        userRepository.adjustFollowingCount(follower.getId(), -1);
+        userRepository.adjustFollowerCount(following.getId(), -1);
+        timelineService.removeAuthor(follower, following);
+        AfterCommit.run(() -> socialGraphIndex.removeEdge(follower.getId(), following.getId()));
     }
 
+    // One page of followers by ascending id; the total comes from the counter column, which also 404s unknown users
     @Transactional(readOnly = true)
-    public UserListResponse getFollowers(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        List<Follow> follows = followRepository.findByFollowing(user);
-        List<UserResponse> followers = follows.stream()
-                .map(follow -> mapUserToResponse(follow.getFollower()))
-                .collect(Collectors.toList());
-        return UserListResponse.builder()
-                .users(followers)
-                .totalCount((long) followers.size())
-                .build();
+    public UserListResponse getFollowers(Long userId, long afterId, int limit) {
+        long totalCount = getFollowerCount(userId);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        return toPage(socialGraphIndex.followerIds(userId, afterId, pageSize + 1), pageSize, totalCount);
     }
 
     @Transactional(readOnly = true)
-    public UserListResponse getFollowing(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        List<Follow> follows = followRepository.findByFollower(user);
-        List<UserResponse> following = follows.stream()
-                .map(follow -> mapUserToResponse(follow.getFollowing()))
-                .collect(Collectors.toList());
-        return UserListResponse.builder()
-                .users(following)
-                .totalCount((long) following.size())
-                .build();
+    public UserListResponse getFollowing(Long userId, long afterId, int limit) {
+        long totalCount = getFollowingCount(userId);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        return toPage(socialGraphIndex.followingIds(userId, afterId, pageSize + 1), pageSize, totalCount);
     }
 
+    public long[] getFollowerIds(Long userId, long afterId, int limit) {
+        requireUser(userId);
+        return socialGraphIndex.followerIds(userId, afterId, normalizeIdLimit(limit));
+    }
+
+    public long[] getFollowingIds(Long userId, long afterId, int limit) {
+        requireUser(userId);
+        return socialGraphIndex.followingIds(userId, afterId, normalizeIdLimit(limit));
+    }
+
+    // Served from the counter columns, which every node updates in the follow transaction
     @Transactional(readOnly = true)
     public long getFollowerCount(Long userId) {
-        User user = userRepository.findById(userId)
+        return userRepository.findFollowerCountById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        return followRepository.countByFollowing(user);
     }
 
     @Transactional(readOnly = true)
     public long getFollowingCount(Long userId) {
-        User user = userRepository.findById(userId)
+        return userRepository.findFollowingCountById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        return followRepository.countByFollower(user);
+    }
+
+    // Repairs counter drift, e.g. after follows were written outside this service
+    @Transactional
+    public int rebuildFollowCounts() {
+        return userRepository.rebuildFollowCounts();
     }
 
     @Transactional(readOnly = true)
     public boolean isFollowing(Long userId, String username) {
         User follower = userService.getEntityByUsername(username);
-        User following = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        return followRepository.existsByFollowerAndFollowing(follower, following);
+        requireUser(userId);
+        return socialGraphIndex.isFollowing(follower.getId(), userId);
+    }
+
+    // Answered from SocialGraphIndex without touching the database; unknown users report false
+    public Map<Long, Boolean> getFollowStatuses(List<Long> userIds, String username) {
+        Long followerId = userService.getEntityByUsername(username).getId();
+        Map<Long, Boolean> statuses = new LinkedHashMap<>();
+        BatchIds.of(userIds).forEach(userId -> statuses.put(userId, socialGraphIndex.isFollowing(followerId, userId)));
+        return statuses;
+    }
+
+    private void requireUser(Long userId) {
+        if (!userExists(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+    }
+
+    // The index only knows users registered through this node; others are checked in the database
+    private boolean userExists(Long userId) {
+        return socialGraphIndex.containsUser(userId) || userRepository.existsById(userId);
     }
 
-    private UserResponse mapUserToResponse(User user) {
+    private static int normalizeIdLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_ID_PAGE_SIZE);
+    }
+
+    // ids holds one more than a page when another page follows
+    private UserListResponse toPage(long[] ids, int pageSize, long totalCount) {
+        boolean hasMore = ids.length > pageSize;
+        long[] page = hasMore ? Arrays.copyOf(ids, pageSize) : ids;
+        return UserListResponse.builder()
+                .users(loadUsers(page))
+                .totalCount(totalCount)
+                .nextAfter(hasMore ? page[page.length - 1] : null)
+                .build();
+    }
+
+    private List<UserResponse> loadUsers(long[] ids) {
+        List<Long> boxedIds = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        if (boxedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserSummary> users = userRepository.findSummariesByIdIn(boxedIds).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+        return boxedIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::mapUserToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private UserResponse mapUserToResponse(UserSummary user) {
         return UserResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .bio(user.getBio())
-                .profilePicture(user.getProfilePicture())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
+                .id(user.id())
+                .username(user.username())
+                .email(user.email())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .profilePicture(ProfilePictureVariant.SMALL.url(user.profilePicture()))
+                .createdAt(user.createdAt())
+                .updatedAt(user.updatedAt())
                 .build();
     }
 }
-
@@ -0,0 +1,143 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind accumulator for {@code Post.likeCount}. Likes and unlikes only bump
+ * a striped {@link LongAdder} per post, so concurrent likes on a viral post contend
+ * on neither a lock nor a single CAS. A scheduled flush applies the summed deltas as
+ * one JDBC batch of UPDATEs, so that post costs one row write per interval instead
+ * of one per like.
+ * <p>
+ * Flushed deltas are subtracted only once the batch commits, so a failed flush keeps
+ * them for the next one, and readers adding {@link #pending} to the column never see
+ * a like missing from both. Adders idle for a whole interval are retired so cold
+ * posts don't pin memory; an add that lands on a retired adder is moved to the live
+ * one, by the flush or by the adding thread, whichever sees it second.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCounter {
+
+    private static final String INCREMENT_SQL = "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void increment(Long postId) {
+        add(postId, 1);
+    }
+
+    public void decrement(Long postId) {
+        add(postId, -1);
+    }
+
+    public long pending(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.counter.flush-interval-ms}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = snapshot();
+            if (!deltas.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> write(deltas));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Resets drifted columns to {@code COUNT(likes)}. The pending deltas are written and
+     * the counts taken in one transaction, and those deltas leave memory when it commits,
+     * so a like is counted once whether or not it was flushed. Only a like whose
+     * after-commit increment lands between the snapshot and the count statement is
+     * counted twice, until the next reconcile.
+     */
+    @Scheduled(fixedDelayString = "${likes.counter.reconcile-interval-ms}",
+            initialDelayString = "${likes.counter.reconcile-interval-ms}")
+    public int reconcile() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = snapshot();
+            Integer corrected = transactionTemplate.execute(status -> {
+                write(deltas);
+                return postRepository.reconcileLikeCounts();
+            });
+            if (corrected != null && corrected > 0) {
+                log.info("Reconciled like counts for {} posts", corrected);
+            }
+            return corrected != null ? corrected : 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Non-zero sums to write; caller holds flushLock. Adders that sum to zero are retired
+    private Map<Long, Long> snapshot() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((postId, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                deltas.put(postId, delta);
+            } else if (pending.remove(postId, adder)) {
+                moveStray(postId, adder);
+            }
+        });
+        return deltas;
+    }
+
+    // Runs inside the caller's transaction; the deltas are subtracted once it commits
+    private void write(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> rows.add(new Object[]{delta, postId}));
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, rows);
+        // Likes racing with the flush stay in pending, on top of what was written
+        AfterCommit.run(() -> deltas.forEach((postId, delta) -> add(postId, -delta)));
+    }
+
+    private void add(Long postId, long delta) {
+        LongAdder adder = pending.get(postId);
+        if (adder == null) {
+            adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+        }
+        adder.add(delta);
+        if (pending.get(postId) != adder) {
+            // Retired while this add was in flight
+            moveStray(postId, adder);
+        }
+    }
+
+    // sumThenReset takes each cell atomically, so every unit is moved exactly once
+    private void moveStray(Long postId, LongAdder retired) {
+        long stray = retired.sumThenReset();
+        if (stray != 0) {
+            add(postId, stray);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.socialconnect.service;
 
+import com.socialconnect.dto.response.BatchMutationResponse;
 import com.socialconnect.dto.response.LikeResponse;
 import com.socialconnect.dto.response.UserResponse;
 import com.socialconnect.entity.Like;
@@ -12,6 +13,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class LikeService {
@@ -19,6 +27,7 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
     private final UserService userService;
+    private final LikeCounter likeCounter;
 
     @Transactional
     public LikeResponse likePost(Long postId, String username) {
@@ -35,27 +44,66 @@ public class LikeService {
                 .user(user)
                 .build();
 
-        like = likeRepository.save(like);
+        like = likeRepository.saveAndFlush(like);
+        AfterCommit.run(() -> likeCounter.increment(postId));
         return mapToResponse(like);
     }
 
+    /**
+     * Likes every listed post the user has not liked yet. Runs three statements however
+     * many ids are sent: the existing-post check, the already-liked check and one
+     * batched insert.
+     */
     @Transactional
-    public void unlikePost(Long postId, String username) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
+    public BatchMutationResponse likePosts(List<Long> postIds, String username) {
+        Set<Long> requested = BatchIds.of(postIds);
         User user = userService.getEntityByUsername(username);
+        Set<Long> existing = new HashSet<>(postRepository.findExistingIds(requested));
+        Set<Long> alreadyLiked = existing.isEmpty()
+                ? Set.of()
+                : new HashSet<>(likeRepository.findLikedPostIds(user.getId(), existing));
+
+        List<Long> applied = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        List<Like> likes = new ArrayList<>();
+        for (Long postId : requested) {
+            if (!existing.contains(postId)) {
+                notFound.add(postId);
+            } else if (alreadyLiked.contains(postId)) {
+                skipped.add(postId);
+            } else {
+                applied.add(postId);
+                likes.add(Like.builder().post(postRepository.getReferenceById(postId)).user(user).build());
+            }
+        }
+        likeRepository.saveAll(likes);
+        AfterCommit.run(() -> applied.forEach(likeCounter::increment));
+        return BatchMutationResponse.builder()
+                .applied(applied)
+                .skipped(skipped)
+                .notFound(notFound)
+                .build();
+    }
 
-        Like like = likeRepository.findByPostAndUser(post, user)
-                .orElseThrow(() -> new ResourceNotFoundException("Like not found"));
+    @Transactional
+    public void unlikePost(Long postId, String username) {
+        User user = userService.getEntityByUsername(username);
 
-        likeRepository.delete(like);
+        if (likeRepository.deleteByPostIdAndUserId(postId, user.getId()) == 0) {
+            if (!postRepository.existsById(postId)) {
+                throw new ResourceNotFoundException("Post not found with id: " + postId);
+            }
+            throw new ResourceNotFoundException("Like not found");
+        }
+        AfterCommit.run(() -> likeCounter.decrement(postId));
     }
 
     @Transactional(readOnly = true)
     public long getLikeCount(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
-        return likeRepository.countByPost(post);
+        return post.getLikeCount() + likeCounter.pending(postId);
     }
 
     @Transactional(readOnly = true)
@@ -66,6 +114,17 @@ public class LikeService {
         return likeRepository.existsByPostAndUser(post, user);
     }
 
+    // One query for the whole list; posts that do not exist simply report false
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> getLikeStatuses(List<Long> postIds, String username) {
+        Set<Long> requested = BatchIds.of(postIds);
+        User user = userService.getEntityByUsername(username);
+        Set<Long> liked = new HashSet<>(likeRepository.findLikedPostIds(user.getId(), requested));
+        Map<Long, Boolean> statuses = new LinkedHashMap<>();
+        requested.forEach(postId -> statuses.put(postId, liked.contains(postId)));
+        return statuses;
+    }
+
     private LikeResponse mapToResponse(Like like) {
         UserResponse userResponse = UserResponse.builder()
                 .id(like.getUser().getId())
@@ -74,7 +133,7 @@ public class LikeService {
                 .firstName(like.getUser().getFirstName())
                 .lastName(like.getUser().getLastName())
                 .bio(like.getUser().getBio())
-                .profilePicture(like.getUser().getProfilePicture())
+                .profilePicture(ProfilePictureVariant.SMALL.url(like.getUser().getProfilePicture()))
                 .createdAt(like.getUser().getCreatedAt())
                 .updatedAt(like.getUser().getUpdatedAt())
                 .build();
@@ -0,0 +1,70 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.response.CursorPageResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset pagination cursor pointing at the last row of a page by its
+ * {@code (createdAt, id)} sort key.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    public static final int MAX_LIMIT = 100;
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new PageCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int normalizeLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <E, T> CursorPageResponse<T> toPage(List<E> rows, int limit,
+                                                      Function<E, PageCursor> cursorOf,
+                                                      Function<List<E>, List<T>> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return CursorPageResponse.<T>builder()
+                .items(mapper.apply(pageRows))
+                .nextCursor(nextCursor)
+                .limit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.socialconnect.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.projection.PostExportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every post, newest first, as NDJSON or a JSON array. Rows come from a
+ * forward-only result set and each is serialized as soon as it is read, so heap use
+ * does not grow with the table: projections are never attached to the persistence
+ * context, and Jackson and the servlet container flush their buffers as they fill.
+ * {@code isLiked} is left null because an export has no viewer.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostExportService {
+
+    private final PostRepository postRepository;
+    private final PostHydrator postHydrator;
+    private final LikeCounter likeCounter;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<PostExportRow> rows = postRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Jackson separates root values with a space, which NDJSON does not want
+            generator.setRootValueSeparator(null);
+            if (format == ExportFormat.JSON) {
+                generator.writeStartArray();
+            }
+            for (Iterator<PostExportRow> it = rows.iterator(); it.hasNext(); count++) {
+                PostExportRow row = it.next();
+                long likeCount = row.post().likeCount() + likeCounter.pending(row.post().id());
+                generator.writeObject(postHydrator.toResponse(row.post(), row.author(), likeCount, null));
+                if (format == ExportFormat.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+            }
+            if (format == ExportFormat.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,86 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.entity.Post;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.LikeRepository;
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.PostView;
+import com.socialconnect.repository.projection.UserSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a page of posts to responses with a fixed number of queries: one for the
+ * authors' summary columns and one liked-by-viewer lookup, regardless of page size. Like counts
+ * come from the denormalized column plus unflushed deltas in {@link LikeCounter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostHydrator {
+
+    private final LikeRepository likeRepository;
+    private final UserRepository userRepository;
+    private final LikeCounter likeCounter;
+
+    public PostResponse hydrate(Post post, User viewer) {
+        return hydrate(List.of(PostView.of(post)), viewer).get(0);
+    }
+
+    public List<PostResponse> hydrate(List<PostView> posts, User viewer) {
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> postIds = posts.stream().map(PostView::id).collect(Collectors.toList());
+        Set<Long> authorIds = posts.stream()
+                .map(PostView::authorId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, UserSummary> authors = userRepository.findSummariesByIdIn(authorIds).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+
+        Set<Long> likedPostIds = viewer != null
+                ? new HashSet<>(likeRepository.findLikedPostIds(viewer.getId(), postIds))
+                : Collections.emptySet();
+
+        return posts.stream()
+                .map(post -> toResponse(post, authors.get(post.authorId()),
+                        post.likeCount() + likeCounter.pending(post.id()), likedPostIds.contains(post.id())))
+                .collect(Collectors.toList());
+    }
+
+    PostResponse toResponse(PostView post, UserSummary author, long likeCount, Boolean isLiked) {
+        UserResponse authorResponse = UserResponse.builder()
+                .id(author.id())
+                .username(author.username())
+                .email(author.email())
+                .firstName(author.firstName())
+                .lastName(author.lastName())
+                .profilePicture(ProfilePictureVariant.SMALL.url(author.profilePicture()))
+                .createdAt(author.createdAt())
+                .updatedAt(author.updatedAt())
+                .build();
+
+        return PostResponse.builder()
+                .id(post.id())
+                .content(post.content())
+                .author(authorResponse)
+                .likeCount(likeCount)
+                .commentCount(post.commentCount())
+                .isLiked(isLiked)
+                .createdAt(post.createdAt())
+                .updatedAt(post.updatedAt())
+                .build();
+    }
+}
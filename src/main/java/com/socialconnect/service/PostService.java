@@ -2,32 +2,34 @@ package com.socialconnect.service;
 
 import com.socialconnect.dto.request.CreatePostRequest;
 import com.socialconnect.dto.request.UpdatePostRequest;
+import com.socialconnect.dto.response.CursorPageResponse;
 import com.socialconnect.dto.response.PostResponse;
-import com.socialconnect.dto.response.UserListResponse;
-import com.socialconnect.dto.response.UserResponse;
 import com.socialconnect.entity.Post;
 import com.socialconnect.entity.User;
 import com.socialconnect.exception.ResourceNotFoundException;
 import com.socialconnect.exception.UnauthorizedException;
-import com.socialconnect.repository.LikeRepository;
 import com.socialconnect.repository.PostRepository;
-import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.PostVersion;
+import com.socialconnect.repository.projection.PostView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PostService {
 
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
-    private final LikeRepository likeRepository;
+    private final PostHydrator postHydrator;
     private final UserService userService;
-    private final FollowService followService;
+    private final TimelineService timelineService;
+    private final RecentPostsCache recentPostsCache;
+    private final LikeCounter likeCounter;
+    private final SearchIndex searchIndex;
 
     @Transactional
     public PostResponse createPost(String username, CreatePostRequest request) {
@@ -38,8 +40,18 @@ public class PostService {
                 .author(author)
                 .build();
 
-        post = postRepository.save(post);
-        return mapToResponse(post, author);
+        // Flushed now so createdAt, which Hibernate sets on insert, is there for the fan-out
+        post = postRepository.saveAndFlush(post);
+        timelineService.fanOut(post);
+        Long authorId = author.getId();
+        Long postId = post.getId();
+        LocalDateTime createdAt = post.getCreatedAt();
+        String content = post.getContent();
+        AfterCommit.run(() -> {
+            recentPostsCache.onPostCreated(authorId, postId, createdAt);
+            searchIndex.indexPost(postId, content);
+        });
+        return postHydrator.hydrate(post, author);
     }
 
     @Transactional(readOnly = true)
@@ -47,7 +59,25 @@ public class PostService {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
         User currentUser = username != null ? userService.getEntityByUsername(username) : null;
-        return mapToResponse(post, currentUser);
+        return postHydrator.hydrate(post, currentUser);
+    }
+
+    // One query instead of the three that hydration takes; no Last-Modified since likes carry no timestamp
+    @Transactional(readOnly = true)
+    public CacheValidator getPostValidator(Long id, String username) {
+        Long viewerId = username != null ? userService.getEntityByUsername(username).getId() : null;
+        PostVersion version = postRepository.findVersionById(id, viewerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
+        return CacheValidator.of(id, version.version(), version.authorVersion(),
+                version.likeCount() + likeCounter.pending(id), version.commentCount(), version.likedByViewer());
+    }
+
+    // Found posts in the requested order; unknown ids are left out
+    @Transactional(readOnly = true)
+    public List<PostResponse> getPostsByIds(List<Long> ids, String username) {
+        long[] postIds = BatchIds.of(ids).stream().mapToLong(Long::longValue).toArray();
+        User currentUser = username != null ? userService.getEntityByUsername(username) : null;
+        return postHydrator.hydrate(postRepository.findAllByIdInOrder(postIds), currentUser);
     }
 
     @Transactional
@@ -62,7 +92,9 @@ public class PostService {
 
         post.setContent(request.getContent());
         post = postRepository.save(post);
-        return mapToResponse(post, currentUser);
+        String content = post.getContent();
+        AfterCommit.run(() -> searchIndex.indexPost(id, content));
+        return postHydrator.hydrate(post, currentUser);
     }
 
     @Transactional
@@ -75,68 +107,54 @@ public class PostService {
             throw new UnauthorizedException("You are not authorized to delete this post");
         }
 
+        timelineService.removePost(post.getId());
         postRepository.delete(post);
+        Long authorId = currentUser.getId();
+        AfterCommit.run(() -> {
+            recentPostsCache.onPostDeleted(authorId, id);
+            searchIndex.deletePost(id);
+        });
     }
 
     @Transactional(readOnly = true)
-    public List<PostResponse> getUserPosts(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        List<Post> posts = postRepository.findByAuthorOrderByCreatedAtDesc(user);
-        return posts.stream()
-                .map(post -> mapToResponse(post, user))
-                .collect(Collectors.toList());
+    public CursorPageResponse<PostResponse> getUserPosts(Long userId, String cursor, int limit) {
+        User user = userService.getEntityById(userId);
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        long[] cachedIds = recentPostsCache.page(userId, after, pageSize + 1);
+        if (cachedIds != null) {
+            return toPage(postRepository.findAllByIdInOrder(cachedIds), pageSize, user);
+        }
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<PostView> posts = after == null
+                ? postRepository.findByAuthorIdOrderByCreatedAtDescIdDesc(userId, page)
+                : postRepository.findByAuthorIdBefore(userId, after.getCreatedAt(), after.getId(), page);
+        return toPage(posts, pageSize, user);
     }
 
     @Transactional(readOnly = true)
-    public List<PostResponse> getFeed(String username) {
+    public CursorPageResponse<PostResponse> getFeed(String username, String cursor, int limit) {
         User currentUser = userService.getEntityByUsername(username);
-        UserListResponse followingResponse = followService.getFollowing(currentUser.getId());
-        List<User> followedUsers = followingResponse.getUsers().stream()
-                .map(userResponse -> userRepository.findById(userResponse.getId())
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found")))
-                .collect(Collectors.toList());
-        followedUsers.add(currentUser); // Include current user's posts
-        List<Post> posts = postRepository.findFeedPosts(followedUsers);
-        return posts.stream()
-                .map(post -> mapToResponse(post, currentUser))
-                .collect(Collectors.toList());
+        int pageSize = PageCursor.normalizeLimit(limit);
+        List<PostView> posts = timelineService.getTimeline(currentUser, PageCursor.decode(cursor), pageSize + 1);
+        return toPage(posts, pageSize, currentUser);
     }
 
     @Transactional(readOnly = true)
-    public List<PostResponse> getAllPosts(String username) {
-        List<Post> posts = postRepository.findAllOrderByCreatedAtDesc();
+    public CursorPageResponse<PostResponse> getAllPosts(String username, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.normalizeLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<PostView> posts = after == null
+                ? postRepository.findLatest(page)
+                : postRepository.findLatestBefore(after.getCreatedAt(), after.getId(), page);
         User currentUser = username != null ? userService.getEntityByUsername(username) : null;
-        return posts.stream()
-                .map(post -> mapToResponse(post, currentUser))
-                .collect(Collectors.toList());
+        return toPage(posts, pageSize, currentUser);
     }
 
-    private PostResponse mapToResponse(Post post, User currentUser) {
-        UserResponse authorResponse = UserResponse.builder()
-                .id(post.getAuthor().getId())
-                .username(post.getAuthor().getUsername())
-                .email(post.getAuthor().getEmail())
-                .firstName(post.getAuthor().getFirstName())
-                .lastName(post.getAuthor().getLastName())
-                .bio(post.getAuthor().getBio())
-                .profilePicture(post.getAuthor().getProfilePicture())
-                .createdAt(post.getAuthor().getCreatedAt())
-                .updatedAt(post.getAuthor().getUpdatedAt())
-                .build();
-
-        long likeCount = likeRepository.countByPost(post);
-        boolean isLiked = currentUser != null && likeRepository.existsByPostAndUser(post, currentUser);
-
-        return PostResponse.builder()
-                .id(post.getId())
-                .content(post.getContent())
-                .author(authorResponse)
-                .likeCount(likeCount)
-                .isLiked(isLiked)
-                .createdAt(post.getCreatedAt())
-                .updatedAt(post.getUpdatedAt())
-                .build();
+    private CursorPageResponse<PostResponse> toPage(List<PostView> posts, int limit, User currentUser) {
+        return PageCursor.toPage(posts, limit,
+                post -> new PageCursor(post.createdAt(), post.id()),
+                page -> postHydrator.hydrate(page, currentUser));
     }
 }
-
@@ -0,0 +1,159 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.ProfilePictureProperties;
+import com.socialconnect.dto.response.UserResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts profile pictures without holding a transaction. The request only stages the
+ * bytes under their hash and checks the image header. A worker decodes the image once,
+ * writes the {@link ProfilePictureVariant}s unless that content is already stored, and
+ * then points the user at the hash in a short transaction. The picture it replaces is
+ * deleted once no user references it, as are the variants of an upload that was
+ * superseded or failed before the switch. When every worker is busy and the queue is full,
+ * uploads are refused with a {@code RejectedExecutionException}.
+ */
+@Slf4j
+@Service
+public class ProfilePictureService {
+
+    private final ProfilePictureStore store;
+    private final UserService userService;
+    // Not a bean: an Executor bean would replace Boot's applicationTaskExecutor
+    private final ThreadPoolExecutor executor;
+
+    private final long maxUploadBytes;
+
+    // Latest upload per user, so a slower earlier upload cannot overwrite a newer one
+    private final Map<Long, ProfilePictureStore.Staged> latest = new ConcurrentHashMap<>();
+
+    // Held while a user is switched to a picture and while an unreferenced one is deleted,
+    // so a picture is never deleted just as another user adopts the same content
+    private final Object references = new Object();
+
+    public ProfilePictureService(ProfilePictureStore store, UserService userService,
+                                 ProfilePictureProperties properties) {
+        this.store = store;
+        this.userService = userService;
+        this.maxUploadBytes = properties.getMaxUploadSize().toBytes();
+        this.executor = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("profile-picture-"));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public UserResponse upload(String username, MultipartFile file) {
+        try {
+            return upload(username, file.getContentType(), file.getSize(), file.getInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read profile picture", e);
+        }
+    }
+
+    // Streams a raw request body; contentLength is -1 when the client did not declare it
+    public UserResponse upload(String username, String contentType, long contentLength, InputStream body) {
+        if (contentLength == 0) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        if (contentLength > maxUploadBytes) {
+            throw new MaxUploadSizeExceededException(maxUploadBytes);
+        }
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("File must be an image");
+        }
+        Long userId = userService.getEntityByUsername(username).getId();
+
+        ProfilePictureStore.Staged staged;
+        try {
+            staged = store.stage(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store profile picture", e);
+        }
+        try {
+            if (staged.size() == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
+            store.validate(staged);
+            latest.put(userId, staged);
+            executor.execute(() -> process(userId, staged));
+        } catch (IOException | RuntimeException e) {
+            latest.remove(userId, staged);
+            discard(staged);
+            if (e instanceof IOException io) {
+                throw new UncheckedIOException("Failed to read profile picture", io);
+            }
+            throw (RuntimeException) e;
+        }
+        return userService.getCurrentUser(username);
+    }
+
+    private void process(Long userId, ProfilePictureStore.Staged staged) {
+        try {
+            if (!store.hasVariants(staged.hash())) {
+                store.writeVariants(staged);
+            }
+            String previous;
+            synchronized (references) {
+                if (!latest.remove(userId, staged)) {
+                    // Superseded by a newer upload, so these variants may belong to nobody
+                    release(staged.hash());
+                    return;
+                }
+                // Rewritten if an unreferenced copy of the same content was deleted meanwhile
+                if (!store.hasVariants(staged.hash())) {
+                    store.writeVariants(staged);
+                }
+                previous = userService.setProfilePicture(userId, staged.hash());
+            }
+            if (previous != null && !previous.equals(staged.hash())) {
+                release(previous);
+            }
+        } catch (Exception e) {
+            latest.remove(userId, staged);
+            log.warn("Profile picture {} for user {} failed: {}", staged.hash(), userId, e.toString());
+            release(staged.hash());
+        } finally {
+            discard(staged);
+        }
+    }
+
+    private void release(String profilePicture) {
+        synchronized (references) {
+            try {
+                if (userService.isProfilePictureInUse(profilePicture)) {
+                    return;
+                }
+                store.delete(profilePicture);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not delete unreferenced profile picture {}: {}", profilePicture, e.toString());
+            }
+        }
+    }
+
+    private void discard(ProfilePictureStore.Staged staged) {
+        try {
+            store.discard(staged);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}: {}", staged.file(), e.toString());
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.ProfilePictureProperties;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Profile pictures on disk under {@code file.upload-dir}, addressed by the SHA-256 of
+ * the uploaded bytes, so identical uploads share one set of variants. Uploads are first
+ * staged in {@code .incoming}, which is emptied at startup of anything a crash left behind;
+ * every file is written under a temporary name and moved into place atomically, so readers
+ * never see a partial variant.
+ */
+@Component
+@EnableConfigurationProperties(ProfilePictureProperties.class)
+public class ProfilePictureStore {
+
+    private static final String INCOMING = ".incoming";
+
+    private final Path root;
+    private final ProfilePictureProperties properties;
+
+    public ProfilePictureStore(@Value("${file.upload-dir}") String uploadDir, ProfilePictureProperties properties) {
+        this.root = Paths.get(uploadDir);
+        this.properties = properties;
+    }
+
+    public record Staged(Path file, String hash, long size) {
+    }
+
+    @PostConstruct
+    void clearIncoming() throws IOException {
+        Path incoming = root.resolve(INCOMING);
+        if (!Files.isDirectory(incoming)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(incoming)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    static boolean isHash(String key) {
+        return key.length() == 64 && key.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+
+    // One pass over the body: hashed as it is written, and cut off with MaxUploadSizeExceededException past the limit
+    public Staged stage(InputStream in) throws IOException {
+        Path incoming = Files.createDirectories(root.resolve(INCOMING));
+        Path file = incoming.resolve(UUID.randomUUID() + ".upload");
+        MessageDigest digest = sha256();
+        long size;
+        try (DigestInputStream hashing = new DigestInputStream(
+                new BoundedInputStream(in, properties.getMaxUploadSize().toBytes()), digest)) {
+            size = Files.copy(hashing, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new Staged(file, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    // Reads only the header: rejects formats ImageIO cannot decode and images too large to decode safely
+    public void validate(Staged staged) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(staged.file().toFile())) {
+            ImageReader reader = reader(input);
+            try {
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > properties.getMaxPixels()) {
+                    throw new IllegalArgumentException("Image is too large: " + pixels + " pixels (max "
+                            + properties.getMaxPixels() + ")");
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * The file behind a media URL path, if it names a stored variant ({@code <ab>/<hash>/<size>.jpg})
+     * or a picture uploaded before variants existed (a single file name). Anything else, including
+     * staged uploads and temporary files, is treated as missing.
+     */
+    public Optional<Path> resolve(String relativePath) {
+        String[] segments = relativePath.split("/", -1);
+        boolean known = switch (segments.length) {
+            case 1 -> !segments[0].isEmpty() && !segments[0].startsWith(".");
+            case 3 -> isHash(segments[1]) && segments[0].equals(segments[1].substring(0, 2))
+                    && Arrays.stream(ProfilePictureVariant.values())
+                            .anyMatch(variant -> segments[2].equals(variant.size() + ".jpg"));
+            default -> false;
+        };
+        Path file = root.resolve(relativePath).normalize();
+        if (!known || !file.startsWith(root.normalize()) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    public boolean hasVariants(String hash) {
+        for (ProfilePictureVariant variant : ProfilePictureVariant.values()) {
+            if (!Files.exists(root.resolve(variant.relativePath(hash)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Decodes once, then scales each variant down from the previous, larger one
+    public void writeVariants(Staged staged) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(staged.file().toFile())) {
+            ImageReader reader = reader(input);
+            try {
+                image = squareCrop(reader.read(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+        ProfilePictureVariant[] variants = ProfilePictureVariant.values();
+        for (int i = variants.length - 1; i >= 0; i--) {
+            image = scaleDown(image, variants[i].size());
+            write(image, root.resolve(variants[i].relativePath(staged.hash())));
+        }
+    }
+
+    public void discard(Staged staged) throws IOException {
+        Files.deleteIfExists(staged.file());
+    }
+
+    // The caller must have checked that no user still references the picture
+    public void delete(String profilePicture) throws IOException {
+        if (!isHash(profilePicture)) {
+            Optional<Path> legacy = resolve(profilePicture);
+            if (legacy.isPresent()) {
+                Files.deleteIfExists(legacy.get());
+            }
+            return;
+        }
+        for (ProfilePictureVariant variant : ProfilePictureVariant.values()) {
+            Files.deleteIfExists(root.resolve(variant.relativePath(profilePicture)));
+        }
+        Path directory = root.resolve(ProfilePictureVariant.SMALL.relativePath(profilePicture)).getParent();
+        try {
+            Files.deleteIfExists(directory);
+            Files.deleteIfExists(directory.getParent());
+        } catch (DirectoryNotEmptyException e) {
+            // Another picture shares the shard directory, or a crashed write left a temporary file
+        }
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (OutputStream out = Files.newOutputStream(temp);
+             ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static ImageReader reader(ImageInputStream input) {
+        Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+        if (readers == null || !readers.hasNext()) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    // Centered square, redrawn as opaque RGB since JPEG has no alpha channel
+    private static BufferedImage squareCrop(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        return draw(source.getSubimage(x, y, side, side), side);
+    }
+
+    // Halving steps with bilinear filtering keep quality close to bicubic at a fraction of the cost
+    private static BufferedImage scaleDown(BufferedImage image, int size) {
+        while (image.getWidth() > size) {
+            image = draw(image, Math.max(size, image.getWidth() / 2));
+        }
+        return image;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int side) {
+        BufferedImage target = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, side, side);
+            g.drawImage(source, 0, 0, side, side, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static final class BoundedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > limit) {
+                throw new MaxUploadSizeExceededException(limit);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
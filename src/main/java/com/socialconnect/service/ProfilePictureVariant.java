@@ -0,0 +1,37 @@
+package com.socialconnect.service;
+
+/**
+ * The sizes each profile picture is stored in, as square JPEGs of at most {@code size}
+ * pixels. Embedded users (posts, comments, follower and like lists) get {@link #SMALL};
+ * profile endpoints get {@link #MEDIUM}.
+ */
+public enum ProfilePictureVariant {
+    SMALL(64),
+    MEDIUM(256),
+    LARGE(1024);
+
+    public static final String URL_PREFIX = "/media/profile-pictures/";
+
+    private final int size;
+
+    ProfilePictureVariant(int size) {
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Content-addressed: <first two hex digits>/<sha-256>/<size>.jpg
+    public String relativePath(String hash) {
+        return hash.substring(0, 2) + "/" + hash + "/" + size + ".jpg";
+    }
+
+    // Pictures uploaded before the pipeline are single files named by UUID and are linked as they are
+    public String url(String profilePicture) {
+        if (profilePicture == null) {
+            return null;
+        }
+        return URL_PREFIX + (ProfilePictureStore.isHash(profilePicture) ? relativePath(profilePicture) : profilePicture);
+    }
+}
@@ -0,0 +1,281 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.PostRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of each author's most recent post ids and creation times, kept in
+ * fixed-size ring buffers of primitives. A ring always holds a contiguous newest-first
+ * prefix of the author's posts, so pages that fall inside it can be answered without
+ * touching the posts table. Cold authors are evicted in LRU order once the configured
+ * memory budget is reached.
+ * <p>
+ * Authors are spread over {@value #SEGMENTS} segments by id, each with its own lock,
+ * LRU map and share of the budget, so reads and writes for different authors rarely
+ * contend on the same lock.
+ */
+@Component
+public class RecentPostsCache {
+
+    // Ring arrays plus object headers and the LRU map entry, rounded up
+    private static final int AUTHOR_OVERHEAD_BYTES = 128;
+    private static final int STAMP_STRIPES = 1024;
+    static final int SEGMENTS = 64;
+
+    private final PostRepository postRepository;
+    private final int capacity;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    // Bumped on every write per author stripe; a load only installs if its stripe did not move
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RecentPostsCache(PostRepository postRepository, MeterRegistry meterRegistry,
+                            @Value("${feed.recent-posts.per-author}") int capacity,
+                            @Value("${feed.recent-posts.max-bytes}") long maxBytes) {
+        this.postRepository = postRepository;
+        this.capacity = capacity;
+        long maxAuthors = maxBytes / (AUTHOR_OVERHEAD_BYTES + 16L * capacity);
+        int maxAuthorsPerSegment = (int) Math.max(1, maxAuthors / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxAuthorsPerSegment, evictions);
+        }
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", "recentPosts", "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "recentPosts", "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", "recentPosts")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, RecentPostsCache::size)
+                .tags("cache", "recentPosts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to {@code size} post ids older than the cursor (or the newest ones
+     * when {@code cursor} is null), newest first, or {@code null} when the page reaches
+     * past what the ring holds and must be read from the database.
+     */
+    public long[] page(long authorId, PageCursor cursor, int size) {
+        long beforeTime = cursor != null ? toNanos(cursor.getCreatedAt()) : Long.MAX_VALUE;
+        long beforeId = cursor != null ? cursor.getId() : Long.MAX_VALUE;
+        Segment segment = segment(authorId);
+        segment.lock.lock();
+        try {
+            Ring ring = segment.rings.get(authorId);
+            if (ring != null) {
+                hits.incrementAndGet();
+                return ring.slice(beforeTime, beforeId, size);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        misses.incrementAndGet();
+        return load(authorId, beforeTime, beforeId, size);
+    }
+
+    public void onPostCreated(long authorId, long postId, LocalDateTime createdAt) {
+        stamps.incrementAndGet(stripe(authorId));
+        Segment segment = segment(authorId);
+        segment.lock.lock();
+        try {
+            Ring ring = segment.rings.get(authorId);
+            if (ring != null) {
+                ring.insert(postId, toNanos(createdAt));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void onPostDeleted(long authorId, long postId) {
+        stamps.incrementAndGet(stripe(authorId));
+        Segment segment = segment(authorId);
+        segment.lock.lock();
+        try {
+            Ring ring = segment.rings.get(authorId);
+            if (ring != null) {
+                ring.remove(postId);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.rings.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private long[] load(long authorId, long beforeTime, long beforeId, int size) {
+        long stamp = stamps.get(stripe(authorId));
+        List<Object[]> rows = postRepository.findRecentKeysByAuthorId(authorId, PageRequest.of(0, capacity));
+        Ring ring = new Ring(capacity, rows.size() < capacity);
+        for (Object[] row : rows) {
+            ring.insert((Long) row[0], toNanos((LocalDateTime) row[1]));
+        }
+
+        Segment segment = segment(authorId);
+        segment.lock.lock();
+        try {
+            // A write for this author raced with the query; serve this read but don't cache it
+            if (stamps.get(stripe(authorId)) == stamp) {
+                segment.rings.putIfAbsent(authorId, ring);
+                // Once installed the ring is shared and only read under the segment lock
+                return ring.slice(beforeTime, beforeId, size);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return ring.slice(beforeTime, beforeId, size);
+    }
+
+    private Segment segment(long authorId) {
+        return segments[(int) (authorId & (SEGMENTS - 1))];
+    }
+
+    private static int stripe(long authorId) {
+        return (int) (authorId & (STAMP_STRIPES - 1));
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    // One lock and LRU map per slice of the author id space
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Ring> rings;
+
+        Segment(int maxAuthors, AtomicLong evictions) {
+            this.rings = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Ring> eldest) {
+                    if (size() > maxAuthors) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    /**
+     * Newest-first ring of (time, id) pairs. {@code complete} means the ring holds every
+     * post the author has, so an under-filled page is final rather than a miss. Not
+     * thread-safe; the cache guards each ring with its segment's lock.
+     */
+    static final class Ring {
+        private final long[] ids;
+        private final long[] times;
+        private int start;
+        private int size;
+        private boolean complete;
+
+        Ring(int capacity, boolean complete) {
+            this.ids = new long[capacity];
+            this.times = new long[capacity];
+            this.complete = complete;
+        }
+
+        void insert(long id, long time) {
+            int position = 0;
+            while (position < size && isNewer(physical(position), time, id)) {
+                position++;
+            }
+            if (position < size && ids[physical(position)] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                complete = false;
+                if (position == size) {
+                    return; // Older than everything in a full ring
+                }
+                size--; // Drop the oldest entry
+            }
+            // Open a slot by moving the newer entries one step towards the front
+            start = (start - 1 + ids.length) % ids.length;
+            for (int i = 0; i < position; i++) {
+                copy(physical(i + 1), physical(i));
+            }
+            ids[physical(position)] = id;
+            times[physical(position)] = time;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[physical(i)] == id) {
+                    for (int j = i; j < size - 1; j++) {
+                        copy(physical(j + 1), physical(j));
+                    }
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        long[] slice(long beforeTime, long beforeId, int limit) {
+            int from = 0;
+            while (from < size && !isOlder(physical(from), beforeTime, beforeId)) {
+                from++;
+            }
+            int available = size - from;
+            if (available < limit && !complete) {
+                return null;
+            }
+            long[] page = new long[Math.min(available, limit)];
+            for (int i = 0; i < page.length; i++) {
+                page[i] = ids[physical(from + i)];
+            }
+            return page;
+        }
+
+        private boolean isNewer(int slot, long time, long id) {
+            return times[slot] > time || (times[slot] == time && ids[slot] > id);
+        }
+
+        private boolean isOlder(int slot, long time, long id) {
+            return times[slot] < time || (times[slot] == time && ids[slot] < id);
+        }
+
+        private void copy(int from, int to) {
+            ids[to] = ids[from];
+            times[to] = times[from];
+        }
+
+        private int physical(int logical) {
+            return (start + logical) % ids.length;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.SearchProperties;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.PostView;
+import com.socialconnect.repository.projection.UserSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over post content and user names, ranked by BM25. Services
+ * update it after each commit, changes become searchable within
+ * {@code search.refresh-interval-ms}, and segments are committed to
+ * {@code search.index-dir} every {@code search.commit-interval-ms}.
+ * <p>
+ * Each commit records when it was taken. At startup, rows changed since then (less a
+ * margin for changes indexed after their transaction) are re-indexed from the database,
+ * and the index is rebuilt only if its post or user count still disagrees, which covers
+ * deletes lost in a crash and a database that was replaced, such as the in-memory H2.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SearchProperties.class)
+public class SearchIndex {
+
+    public record Hit(long id, float score) {
+    }
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String CONTENT = "content";
+    private static final String USERNAME = "username";
+    private static final String NAME = "name";
+    private static final String POST = "post";
+    private static final String USER = "user";
+    private static final String WATERMARK = "watermark";
+
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int LOAD_BATCH_SIZE = 1_000;
+    private static final int MAX_QUERY_TERMS = 16;
+    // Ties on score go to the newest row, which also makes the order stable for cursors
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG, true));
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public SearchIndex(SearchProperties properties, PostRepository postRepository, UserRepository userRepository)
+            throws IOException {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.directory = properties.getIndexDir().isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Paths.get(properties.getIndexDir()));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        long start = System.nanoTime();
+        LocalDateTime watermark = committedWatermark();
+        if (watermark != null) {
+            LocalDateTime caughtUpAt = LocalDateTime.now();
+            int changed = index(watermark.minus(CATCH_UP_MARGIN));
+            searcherManager.maybeRefreshBlocking();
+            if (isComplete()) {
+                commit(caughtUpAt);
+                log.info("Opened search index: {} posts, {} users, {} re-indexed since {} in {} ms",
+                        count(POST), count(USER), changed, watermark, (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+        }
+        rebuild();
+    }
+
+    // Called after bulk loads that bypass the services, such as DatasetGenerator
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime rebuiltAt = LocalDateTime.now();
+        try {
+            writer.deleteAll();
+            index(BEGINNING);
+            commit(rebuiltAt);
+            searcherManager.maybeRefreshBlocking();
+            log.info("Built search index: {} posts, {} users in {} ms",
+                    count(POST), count(USER), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rebuild search index", e);
+        }
+    }
+
+    public void indexPost(Long id, String content) {
+        Document document = new Document();
+        document.add(new StringField(KEY, POST + ":" + id, Field.Store.NO));
+        document.add(new StringField(TYPE, POST, Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, id));
+        document.add(new TextField(CONTENT, content, Field.Store.NO));
+        update(POST + ":" + id, document);
+    }
+
+    public void deletePost(Long id) {
+        try {
+            writer.deleteDocuments(new Term(KEY, POST + ":" + id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update search index", e);
+        }
+    }
+
+    public void indexUser(Long id, String username, String firstName, String lastName) {
+        Document document = new Document();
+        document.add(new StringField(KEY, USER + ":" + id, Field.Store.NO));
+        document.add(new StringField(TYPE, USER, Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, id));
+        document.add(new TextField(USERNAME, username, Field.Store.NO));
+        document.add(new TextField(NAME, (nullToEmpty(firstName) + " " + nullToEmpty(lastName)).trim(), Field.Store.NO));
+        update(USER + ":" + id, document);
+    }
+
+    public List<Hit> searchPosts(String text, Hit after, int limit) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms(text)) {
+            query.add(new TermQuery(new Term(CONTENT, term)), BooleanClause.Occur.SHOULD);
+        }
+        return search(query.build(), after, limit);
+    }
+
+    // A username match counts double a first or last name match
+    public List<Hit> searchUsers(String text, Hit after, int limit) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms(text)) {
+            query.add(new BoostQuery(new TermQuery(new Term(USERNAME, term)), 2f), BooleanClause.Occur.SHOULD);
+            query.add(new TermQuery(new Term(NAME, term)), BooleanClause.Occur.SHOULD);
+        }
+        return search(query.build(), after, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${search.refresh-interval-ms}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            commit(LocalDateTime.now());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // Everything indexed before the watermark is part of this commit
+    private void commit(LocalDateTime watermark) throws IOException {
+        writer.setLiveCommitData(Map.of(WATERMARK, watermark.toString()).entrySet());
+        writer.commit();
+    }
+
+    private LocalDateTime committedWatermark() throws IOException {
+        if (!DirectoryReader.indexExists(directory)) {
+            return null;
+        }
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            String watermark = reader.getIndexCommit().getUserData().get(WATERMARK);
+            return watermark != null ? LocalDateTime.parse(watermark) : null;
+        }
+    }
+
+    private int index(LocalDateTime since) throws IOException {
+        int indexed = 0;
+        long lastId = 0;
+        List<PostView> posts;
+        do {
+            posts = postRepository.findViewsChangedAfter(lastId, since, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (PostView post : posts) {
+                indexPost(post.id(), post.content());
+                lastId = post.id();
+            }
+            indexed += posts.size();
+        } while (posts.size() == LOAD_BATCH_SIZE);
+
+        lastId = 0;
+        List<UserSummary> users;
+        do {
+            users = userRepository.findSummariesChangedAfter(lastId, since, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (UserSummary user : users) {
+                indexUser(user.id(), user.username(), user.firstName(), user.lastName());
+                lastId = user.id();
+            }
+            indexed += users.size();
+        } while (users.size() == LOAD_BATCH_SIZE);
+        return indexed;
+    }
+
+    private boolean isComplete() throws IOException {
+        return count(POST) == postRepository.count() && count(USER) == userRepository.count();
+    }
+
+    private int count(String type) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(new Term(TYPE, type)));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void update(String key, Document document) {
+        try {
+            writer.updateDocument(new Term(KEY, key), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update search index", e);
+        }
+    }
+
+    private List<Hit> search(Query query, Hit after, int limit) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                if (maxDoc == 0) {
+                    return List.of();
+                }
+                // Ids are unique, so the doc number of the cursor never breaks a tie; it only has to be in range
+                TopDocs top = after == null
+                        ? searcher.search(query, limit, RANKING, true)
+                        : searcher.searchAfter(new FieldDoc(maxDoc - 1, after.score(),
+                                new Object[]{after.score(), after.id()}), query, limit, RANKING, true);
+                List<Hit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc doc : top.scoreDocs) {
+                    hits.add(new Hit((Long) ((FieldDoc) doc).fields[1], doc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to search index", e);
+        }
+    }
+
+    // Analyzed the same way as the indexed text: lower-cased words, at most MAX_QUERY_TERMS of them
+    private List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(CONTENT, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (terms.size() < MAX_QUERY_TERMS && stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        return terms;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
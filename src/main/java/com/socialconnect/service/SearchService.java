@@ -0,0 +1,122 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.dto.response.UserSuggestionResponse;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.UserSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked search over {@link SearchIndex}, hydrated from the database. Cursors carry the
+ * last hit's score and id; rows deleted since the index was last refreshed are left out.
+ * Typeahead suggestions come straight from {@link UserAutocompleteIndex} without a query.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private final SearchIndex searchIndex;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final PostHydrator postHydrator;
+    private final UserService userService;
+    private final UserAutocompleteIndex userAutocompleteIndex;
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PostResponse> searchPosts(String query, String username, String cursor, int limit) {
+        int pageSize = PageCursor.normalizeLimit(limit);
+        List<SearchIndex.Hit> hits = searchIndex.searchPosts(query, decode(cursor), pageSize + 1);
+        User currentUser = username != null ? userService.getEntityByUsername(username) : null;
+        return toPage(hits, pageSize, page -> postHydrator.hydrate(postRepository.findAllByIdInOrder(ids(page)), currentUser));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponse> searchUsers(String query, String cursor, int limit) {
+        int pageSize = PageCursor.normalizeLimit(limit);
+        List<SearchIndex.Hit> hits = searchIndex.searchUsers(query, decode(cursor), pageSize + 1);
+        return toPage(hits, pageSize, this::loadUsers);
+    }
+
+    public List<UserSuggestionResponse> suggestUsers(String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, userAutocompleteIndex.maxLimit()));
+        return userAutocompleteIndex.suggest(prefix, size).stream()
+                .map(user -> UserSuggestionResponse.builder()
+                        .id(user.id())
+                        .username(user.username())
+                        .firstName(user.firstName())
+                        .lastName(user.lastName())
+                        .profilePicture(ProfilePictureVariant.SMALL.url(user.profilePicture()))
+                        .followerCount(user.followerCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static <T> CursorPageResponse<T> toPage(List<SearchIndex.Hit> hits, int limit,
+                                                    Function<List<SearchIndex.Hit>, List<T>> mapper) {
+        boolean hasMore = hits.size() > limit;
+        List<SearchIndex.Hit> page = hasMore ? hits.subList(0, limit) : hits;
+        return CursorPageResponse.<T>builder()
+                .items(page.isEmpty() ? List.of() : mapper.apply(page))
+                .nextCursor(hasMore ? encode(page.get(page.size() - 1)) : null)
+                .limit(limit)
+                .build();
+    }
+
+    private List<UserResponse> loadUsers(List<SearchIndex.Hit> hits) {
+        Map<Long, UserSummary> users = userRepository.findSummariesByIdIn(hits.stream().map(SearchIndex.Hit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+        return hits.stream()
+                .map(hit -> users.get(hit.id()))
+                .filter(Objects::nonNull)
+                .map(user -> UserResponse.builder()
+                        .id(user.id())
+                        .username(user.username())
+                        .email(user.email())
+                        .firstName(user.firstName())
+                        .lastName(user.lastName())
+                        .profilePicture(ProfilePictureVariant.SMALL.url(user.profilePicture()))
+                        .createdAt(user.createdAt())
+                        .updatedAt(user.updatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static long[] ids(List<SearchIndex.Hit> hits) {
+        return hits.stream().mapToLong(SearchIndex.Hit::id).toArray();
+    }
+
+    // Float.toString round-trips exactly, so the next page starts right after the last hit
+    private static String encode(SearchIndex.Hit hit) {
+        String raw = hit.score() + "|" + hit.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SearchIndex.Hit decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new SearchIndex.Hit(Long.parseLong(decoded.substring(separator + 1)),
+                    Float.parseFloat(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.FollowRepository;
+import com.socialconnect.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+/**
+ * In-process copy of the follow graph. Each user id indexes a sorted {@code long[]}
+ * of neighbour ids for both edge directions, so membership checks are a binary
+ * search and counts are an array length, with no entity loading or boxing.
+ * <p>
+ * Rows are copy-on-write: writers build a new array under a lock and publish it,
+ * readers never lock. The index is loaded from {@link FollowRepository} at startup
+ * and updated by {@link FollowService} after each follow/unfollow commits.
+ * <p>
+ * It also tracks which authors are pulled at read time rather than fanned out (see
+ * {@link TimelineService}), with a third set of rows holding, per user, the pulled
+ * authors they follow, so a feed read finds its pulled sources without scanning
+ * everyone the reader follows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SocialGraphIndex {
+
+    private static final long[] EMPTY = new long[0];
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile AtomicReferenceArray<long[]> following = new AtomicReferenceArray<>(0);
+    private volatile AtomicReferenceArray<long[]> followers = new AtomicReferenceArray<>(0);
+    private volatile AtomicReferenceArray<long[]> pulledFollowing = new AtomicReferenceArray<>(0);
+    private volatile BitSet users = new BitSet();
+    private volatile BitSet pulledAuthors = new BitSet();
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        BitSet loadedUsers = new BitSet();
+        long lastUserId = 0;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(lastUserId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Long id : userIds) {
+                loadedUsers.set(toIndex(id));
+                lastUserId = id;
+            }
+        } while (userIds.size() == LOAD_BATCH_SIZE);
+
+        LongList sources = new LongList();
+        LongList targets = new LongList();
+        long lastId = 0;
+        List<Object[]> batch;
+        do {
+            batch = followRepository.findEdgesAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Object[] edge : batch) {
+                lastId = (Long) edge[0];
+                sources.add((Long) edge[1]);
+                targets.add((Long) edge[2]);
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        BitSet loadedPulled = new BitSet();
+        userRepository.findTimelinePulledIds().forEach(id -> loadedPulled.set(toIndex(id)));
+        LongList pulledReaders = new LongList();
+        LongList pulledTargets = new LongList();
+        for (int i = 0; i < sources.size(); i++) {
+            if (loadedPulled.get((int) targets.get(i))) {
+                pulledReaders.add(sources.get(i));
+                pulledTargets.add(targets.get(i));
+            }
+        }
+
+        writeLock.lock();
+        try {
+            int capacity = Math.max(loadedUsers.length(), Math.max(sources.max(), targets.max()) + 1);
+            following = buildRows(sources, targets, capacity);
+            followers = buildRows(targets, sources, capacity);
+            pulledFollowing = buildRows(pulledReaders, pulledTargets, capacity);
+            users = loadedUsers;
+            pulledAuthors = loadedPulled;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Loaded social graph index: {} users, {} edges, ~{} KB in {} ms",
+                loadedUsers.cardinality(), sources.size(), footprintBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean containsUser(long userId) {
+        return userId > 0 && userId <= Integer.MAX_VALUE && users.get((int) userId);
+    }
+
+    public boolean isFollowing(long followerId, long followingId) {
+        return Arrays.binarySearch(row(following, followerId), followingId) >= 0;
+    }
+
+    public int followingCount(long userId) {
+        return row(following, userId).length;
+    }
+
+    public int followerCount(long userId) {
+        return row(followers, userId).length;
+    }
+
+    // Streams over the published row itself, which is never modified, so callers cannot alter the index
+    public LongStream followingIds(long userId) {
+        return Arrays.stream(row(following, userId));
+    }
+
+    public LongStream followerIds(long userId) {
+        return Arrays.stream(row(followers, userId));
+    }
+
+    public boolean isPulled(long authorId) {
+        return authorId >= 0 && authorId <= Integer.MAX_VALUE && pulledAuthors.get((int) authorId);
+    }
+
+    // The pulled authors among those the user follows
+    public LongStream pulledFollowingIds(long userId) {
+        return Arrays.stream(row(pulledFollowing, userId));
+    }
+
+    /**
+     * Returns up to {@code limit} ids greater than {@code afterId}, in ascending order.
+     */
+    public long[] followingIds(long userId, long afterId, int limit) {
+        return slice(row(following, userId), afterId, limit);
+    }
+
+    public long[] followerIds(long userId, long afterId, int limit) {
+        return slice(row(followers, userId), afterId, limit);
+    }
+
+    public void addUser(long userId) {
+        writeLock.lock();
+        try {
+            BitSet updated = (BitSet) users.clone();
+            updated.set(toIndex(userId));
+            users = updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Adds the author to the pulled rows of every current follower; a no-op once pulled
+    public void markPulled(long authorId) {
+        writeLock.lock();
+        try {
+            if (isPulled(authorId)) {
+                return;
+            }
+            ensureCapacity(toIndex(authorId) + 1);
+            for (long followerId : row(followers, authorId)) {
+                insert(pulledFollowing, followerId, authorId);
+            }
+            BitSet updated = (BitSet) pulledAuthors.clone();
+            updated.set(toIndex(authorId));
+            pulledAuthors = updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void addEdge(long followerId, long followingId) {
+        writeLock.lock();
+        try {
+            ensureCapacity(Math.max(toIndex(followerId), toIndex(followingId)) + 1);
+            insert(following, followerId, followingId);
+            insert(followers, followingId, followerId);
+            if (isPulled(followingId)) {
+                insert(pulledFollowing, followerId, followingId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeEdge(long followerId, long followingId) {
+        writeLock.lock();
+        try {
+            remove(following, followerId, followingId);
+            remove(followers, followingId, followerId);
+            remove(pulledFollowing, followerId, followingId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long userCount() {
+        return users.cardinality();
+    }
+
+    public long edgeCount() {
+        AtomicReferenceArray<long[]> rows = following;
+        long edges = 0;
+        for (int i = 0; i < rows.length(); i++) {
+            long[] row = rows.get(i);
+            edges += row != null ? row.length : 0;
+        }
+        return edges;
+    }
+
+    /**
+     * Estimated retained heap of the index, assuming compressed oops: 16 byte array
+     * headers, 4 byte references and 8 bytes per stored edge endpoint.
+     */
+    public long footprintBytes() {
+        return rowsFootprint(following) + rowsFootprint(followers) + rowsFootprint(pulledFollowing)
+                + users.size() / 8 + pulledAuthors.size() / 8;
+    }
+
+    private static long rowsFootprint(AtomicReferenceArray<long[]> rows) {
+        long bytes = 16 + align(16 + 4L * rows.length());
+        for (int i = 0; i < rows.length(); i++) {
+            long[] row = rows.get(i);
+            if (row != null) {
+                bytes += align(16 + 8L * row.length);
+            }
+        }
+        return bytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static long[] row(AtomicReferenceArray<long[]> rows, long userId) {
+        if (userId < 0 || userId >= rows.length()) {
+            return EMPTY;
+        }
+        long[] row = rows.get((int) userId);
+        return row != null ? row : EMPTY;
+    }
+
+    private static long[] slice(long[] row, long afterId, int limit) {
+        int from = Arrays.binarySearch(row, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        int to = (int) Math.min(row.length, (long) from + limit);
+        return Arrays.copyOfRange(row, from, Math.max(from, to));
+    }
+
+    private static void insert(AtomicReferenceArray<long[]> rows, long ownerId, long value) {
+        long[] row = row(rows, ownerId);
+        int position = Arrays.binarySearch(row, value);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        long[] updated = new long[row.length + 1];
+        System.arraycopy(row, 0, updated, 0, position);
+        updated[position] = value;
+        System.arraycopy(row, position, updated, position + 1, row.length - position);
+        rows.set((int) ownerId, updated);
+    }
+
+    private static void remove(AtomicReferenceArray<long[]> rows, long ownerId, long value) {
+        long[] row = row(rows, ownerId);
+        int position = Arrays.binarySearch(row, value);
+        if (position < 0) {
+            return;
+        }
+        long[] updated = new long[row.length - 1];
+        System.arraycopy(row, 0, updated, 0, position);
+        System.arraycopy(row, position + 1, updated, position, row.length - position - 1);
+        rows.set((int) ownerId, updated.length > 0 ? updated : null);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > following.length()) {
+            int grown = Math.max(capacity, following.length() + (following.length() >> 1) + 16);
+            following = grow(following, grown);
+            followers = grow(followers, grown);
+            pulledFollowing = grow(pulledFollowing, grown);
+        }
+    }
+
+    private static AtomicReferenceArray<long[]> grow(AtomicReferenceArray<long[]> rows, int capacity) {
+        AtomicReferenceArray<long[]> grown = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < rows.length(); i++) {
+            grown.set(i, rows.get(i));
+        }
+        return grown;
+    }
+
+    private static AtomicReferenceArray<long[]> buildRows(LongList owners, LongList values, int capacity) {
+        int[] degree = new int[capacity];
+        for (int i = 0; i < owners.size(); i++) {
+            degree[(int) owners.get(i)]++;
+        }
+        long[][] rows = new long[capacity][];
+        for (int id = 0; id < capacity; id++) {
+            if (degree[id] > 0) {
+                rows[id] = new long[degree[id]];
+            }
+        }
+        int[] filled = new int[capacity];
+        for (int i = 0; i < owners.size(); i++) {
+            int owner = (int) owners.get(i);
+            rows[owner][filled[owner]++] = values.get(i);
+        }
+        AtomicReferenceArray<long[]> result = new AtomicReferenceArray<>(capacity);
+        for (int id = 0; id < capacity; id++) {
+            if (rows[id] != null) {
+                Arrays.sort(rows[id]);
+                result.set(id, rows[id]);
+            }
+        }
+        return result;
+    }
+
+    private static int toIndex(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE - 16) {
+            throw new IllegalArgumentException("User id out of range for graph index: " + userId);
+        }
+        return (int) userId;
+    }
+
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+        private int max;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            max = Math.max(max, toIndex(value));
+        }
+
+        long get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int max() {
+            return max;
+        }
+    }
+}
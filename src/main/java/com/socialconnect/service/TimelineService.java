@@ -0,0 +1,252 @@
+package com.socialconnect.service;
+
+import com.socialconnect.entity.Post;
+import com.socialconnect.entity.TimelineEntry;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.repository.TimelineEntryRepository;
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.PostView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    private static final Comparator<PostView> NEWEST_FIRST =
+            Comparator.comparing(PostView::createdAt).thenComparing(PostView::id).reversed();
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final UserRepository userRepository;
+    private final SocialGraphIndex socialGraphIndex;
+    private final PostRepository postRepository;
+    private final RecentPostsCache recentPostsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${feed.timeline.backfill-size}")
+    private int backfillSize;
+
+    // Entries kept per owner; older ones are trimmed, so a feed ends after this many posts
+    @Value("${feed.timeline.max-entries}")
+    private int maxEntries;
+
+    // Authors with more followers than this are not fanned out but pulled at read time, from then on
+    @Value("${feed.fanout.follower-threshold}")
+    private int fanOutFollowerThreshold;
+
+    @Transactional
+    public void fanOut(Post post) {
+        Long authorId = post.getAuthor().getId();
+        long[] followerIds = pullIfPopular(authorId) ? new long[0] : socialGraphIndex.followerIds(authorId).toArray();
+
+        List<TimelineEntry> entries = new ArrayList<>(followerIds.length + 1);
+        entries.add(toEntry(authorId, post)); // Authors see their own posts in their feed
+        for (long followerId : followerIds) {
+            entries.add(toEntry(followerId, post));
+        }
+        timelineEntryRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public void removePost(Long postId) {
+        timelineEntryRepository.deleteByPostId(postId);
+    }
+
+    @Transactional
+    public void backfill(User follower, User following) {
+        if (pullIfPopular(following.getId())) {
+            return;
+        }
+        List<Post> posts = postRepository.findBackfillPosts(following, follower.getId(), PageRequest.of(0, backfillSize));
+        List<TimelineEntry> entries = posts.stream()
+                .map(post -> toEntry(follower.getId(), post))
+                .collect(Collectors.toList());
+        timelineEntryRepository.saveAll(entries);
+    }
+
+    // One query for all authors, so the newest backfillSize posts across them rather than per author
+    @Transactional
+    public void backfill(User follower, Collection<Long> followingIds) {
+        List<Long> pushedAuthorIds = followingIds.stream()
+                .filter(authorId -> !pullIfPopular(authorId))
+                .collect(Collectors.toList());
+        if (pushedAuthorIds.isEmpty()) {
+            return;
+        }
+        List<Post> posts = postRepository.findBackfillPostsByAuthorIds(pushedAuthorIds, follower.getId(),
+                PageRequest.of(0, backfillSize));
+        List<TimelineEntry> entries = posts.stream()
+                .map(post -> toEntry(follower.getId(), post))
+                .collect(Collectors.toList());
+        timelineEntryRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public void removeAuthor(User follower, User following) {
+        timelineEntryRepository.deleteByOwnerIdAndAuthorId(follower.getId(), following.getId());
+    }
+
+    /**
+     * Deletes each owner's entries beyond the newest {@code feed.timeline.max-entries}.
+     * Fan-out and backfill only ever add rows, so without this a timeline grows with
+     * every post of every followed author. Each owner is trimmed in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${feed.timeline.trim-interval-ms}",
+            initialDelayString = "${feed.timeline.trim-interval-ms}")
+    public int trim() {
+        int trimmed = 0;
+        for (Long ownerId : timelineEntryRepository.findOwnersWithMoreThan(maxEntries)) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<TimelineEntry> oldest = timelineEntryRepository.findByOwnerIdNewestFirst(ownerId,
+                        PageRequest.of(maxEntries, 1));
+                if (oldest.isEmpty()) {
+                    return 0;
+                }
+                TimelineEntry first = oldest.get(0);
+                return timelineEntryRepository.deleteByOwnerIdUpTo(ownerId, first.getCreatedAt(),
+                        first.getPost().getId());
+            });
+            trimmed += deleted != null ? deleted : 0;
+        }
+        if (trimmed > 0) {
+            log.info("Trimmed {} timeline entries beyond {} per owner", trimmed, maxEntries);
+        }
+        return trimmed;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostView> getTimeline(User owner, PageCursor cursor, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        List<List<PostView>> sources = new ArrayList<>();
+        sources.add(cursor == null
+                ? timelineEntryRepository.findTimelinePosts(owner.getId(), page)
+                : timelineEntryRepository.findTimelinePostsBefore(owner.getId(), cursor.getCreatedAt(), cursor.getId(), page));
+
+        // Pulled authors are served from their recent-posts rings; all cached ids load in one query
+        List<long[]> cachedPages = new ArrayList<>();
+        for (long authorId : socialGraphIndex.pulledFollowingIds(owner.getId()).toArray()) {
+            long[] ids = recentPostsCache.page(authorId, cursor, size);
+            if (ids != null) {
+                cachedPages.add(ids);
+            } else {
+                sources.add(cursor == null
+                        ? postRepository.findByAuthorIdOrderByCreatedAtDescIdDesc(authorId, page)
+                        : postRepository.findByAuthorIdBefore(authorId, cursor.getCreatedAt(), cursor.getId(), page));
+            }
+        }
+        if (!cachedPages.isEmpty()) {
+            long[] allIds = cachedPages.stream().flatMapToLong(Arrays::stream).toArray();
+            Map<Long, PostView> posts = postRepository.findAllByIdInOrder(allIds).stream()
+                    .collect(Collectors.toMap(PostView::id, Function.identity()));
+            for (long[] ids : cachedPages) {
+                sources.add(Arrays.stream(ids)
+                        .mapToObj(posts::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+            }
+        }
+        return sources.size() == 1 ? sources.get(0) : merge(sources, size);
+    }
+
+    /**
+     * Whether the author's posts are left out of timelines and pulled at read time. The
+     * first time an author is over the threshold this is recorded on the user, and it
+     * sticks: their timeline entries stop at that point, so dropping back below the
+     * threshold must not stop the merge, or the posts in between would vanish from feeds.
+     */
+    private boolean pullIfPopular(long authorId) {
+        if (socialGraphIndex.isPulled(authorId)) {
+            return true;
+        }
+        if (socialGraphIndex.followerCount(authorId) <= fanOutFollowerThreshold) {
+            return false;
+        }
+        userRepository.markTimelinePulled(authorId);
+        AfterCommit.run(() -> socialGraphIndex.markPulled(authorId));
+        return true;
+    }
+
+    /**
+     * Heap-based k-way merge of newest-first post lists, keeping the first {@code size}
+     * distinct posts. Duplicates appear when an author crosses the fan-out threshold
+     * and has posts both in the timeline and in their own post list.
+     */
+    static List<PostView> merge(List<List<PostView>> sources, int size) {
+        PriorityQueue<PeekingIterator> heap = new PriorityQueue<>(sources.size(),
+                (a, b) -> NEWEST_FIRST.compare(a.peek(), b.peek()));
+        for (List<PostView> source : sources) {
+            if (!source.isEmpty()) {
+                heap.add(new PeekingIterator(source.iterator()));
+            }
+        }
+
+        List<PostView> merged = new ArrayList<>(size);
+        Set<Long> seen = new HashSet<>();
+        while (merged.size() < size && !heap.isEmpty()) {
+            PeekingIterator head = heap.poll();
+            PostView post = head.next();
+            if (seen.add(post.id())) {
+                merged.add(post);
+            }
+            if (head.hasNext()) {
+                heap.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private TimelineEntry toEntry(Long ownerId, Post post) {
+        return TimelineEntry.builder()
+                .ownerId(ownerId)
+                .post(post)
+                .authorId(post.getAuthor().getId())
+                .createdAt(post.getCreatedAt())
+                .build();
+    }
+
+    private static final class PeekingIterator {
+        private final Iterator<PostView> delegate;
+        private PostView next;
+
+        PeekingIterator(Iterator<PostView> delegate) {
+            this.delegate = delegate;
+            this.next = delegate.next();
+        }
+
+        PostView peek() {
+            return next;
+        }
+
+        PostView next() {
+            PostView current = next;
+            next = delegate.hasNext() ? delegate.next() : null;
+            return current;
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.AuthProperties;
+import com.socialconnect.exception.UnauthorizedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed tokens of the form
+ * {@code base64url(kid|type|exp|roles|username).base64url(mac)}. Verification needs
+ * only the configured keys, so it never touches the database or a session.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public enum Type {
+        ACCESS,
+        REFRESH
+    }
+
+    public record Claims(String username, List<String> roles, Type type, Instant expiresAt) {
+    }
+
+    private final AuthProperties.Token properties;
+    private final Clock clock;
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final String signingKeyId;
+
+    @Autowired
+    public TokenService(AuthProperties authProperties) {
+        this(authProperties, Clock.systemUTC());
+    }
+
+    TokenService(AuthProperties authProperties, Clock clock) {
+        this.properties = authProperties.getToken();
+        this.clock = clock;
+        properties.getKeys().forEach((kid, secret) -> keys.put(kid, toKey(kid, Base64.getDecoder().decode(secret))));
+
+        if (keys.isEmpty()) {
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            keys.put("ephemeral", toKey("ephemeral", secret));
+            this.signingKeyId = "ephemeral";
+            if (authProperties.getMode() == AuthProperties.Mode.TOKEN) {
+                log.warn("No auth.token.keys configured; signing with a random key, tokens will not survive a restart or work across instances");
+            }
+        } else {
+            this.signingKeyId = properties.getSigningKeyId();
+            if (signingKeyId == null || !keys.containsKey(signingKeyId)) {
+                throw new IllegalStateException("auth.token.signing-key-id must name one of auth.token.keys");
+            }
+        }
+    }
+
+    public String issue(String username, Collection<String> roles, Type type) {
+        Instant expiresAt = clock.instant().plus(type == Type.ACCESS ? properties.getAccessTtl() : properties.getRefreshTtl());
+        String claims = String.join("|", signingKeyId, type.name(), Long.toString(expiresAt.getEpochSecond()),
+                String.join(",", roles), username);
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(keys.get(signingKeyId), payload));
+    }
+
+    public Claims verify(String token, Type expectedType) {
+        int dot = token.lastIndexOf('.');
+        if (dot <= 0) {
+            throw new UnauthorizedException("Invalid token");
+        }
+        String payload = token.substring(0, dot);
+        String[] parts;
+        byte[] signature;
+        try {
+            parts = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\\|", 5);
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new UnauthorizedException("Invalid token");
+        }
+        SecretKeySpec key = parts.length == 5 ? keys.get(parts[0]) : null;
+        if (key == null || !MessageDigest.isEqual(sign(key, payload), signature)) {
+            throw new UnauthorizedException("Invalid token");
+        }
+
+        Type type = Type.valueOf(parts[1]);
+        if (type != expectedType) {
+            throw new UnauthorizedException("Invalid token type");
+        }
+        Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+        if (!clock.instant().isBefore(expiresAt)) {
+            throw new UnauthorizedException("Token expired");
+        }
+        List<String> roles = parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(","));
+        return new Claims(parts[4], roles, type, expiresAt);
+    }
+
+    public long accessTtlSeconds() {
+        return properties.getAccessTtl().toSeconds();
+    }
+
+    private static SecretKeySpec toKey(String kid, byte[] secret) {
+        if (secret.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("auth.token.keys." + kid + " must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        return new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    private static byte[] sign(SecretKeySpec key, String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
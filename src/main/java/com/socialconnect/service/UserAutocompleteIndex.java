@@ -0,0 +1,392 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.repository.projection.UserSummary;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over usernames and display names, ranked by follower count. Every user
+ * contributes up to four normalized keys (username, first name, last name and
+ * "first last"), held in one sorted array. A prefix is the range of keys starting with
+ * it, which is the subtree of an implicit trie: ranges of at most {@link #SCAN_LIMIT}
+ * keys are ranked on the fly, and larger ones have their top users precomputed. Those
+ * "heavy" prefixes are few (at most keys / {@code SCAN_LIMIT} per prefix length), so
+ * memory stays close to the keys themselves and every lookup touches a bounded number
+ * of entries.
+ * <p>
+ * That base is immutable. Users registered or changed since it was built live in a small
+ * sorted delta, which a write copies and republishes under a lock, so a write costs the
+ * size of the delta rather than of the index and readers never lock. A lookup skips the
+ * base entries of changed users and merges in the delta's matches. The delta is folded
+ * into a new base, off the lock, every {@code users.autocomplete.merge-interval-ms}, and
+ * follower counts are re-read from {@link SocialGraphIndex} at the same time every
+ * {@code users.autocomplete.rerank-interval-ms}. The index is loaded from
+ * {@link UserRepository} at startup and kept current by {@link UserService}.
+ */
+@Slf4j
+@Component
+public class UserAutocompleteIndex {
+
+    public record Suggestion(long id, String username, String firstName, String lastName, String profilePicture,
+                             int followerCount) {
+    }
+
+    // Every key of the users, sorted by key and then owner
+    private record Keys(String[] keys, long[] owners, Map<Long, Suggestion> users) {
+        static final Keys EMPTY = new Keys(new String[0], new long[0], Map.of());
+    }
+
+    private record Snapshot(Keys base, Map<String, long[]> heavy, Keys delta) {
+    }
+
+    static final int SCAN_LIMIT = 256;
+    // Ranked lists run this far past top-k, so changed users can be skipped without rescanning the range
+    static final int SLACK = 32;
+    static final int MAX_KEY_LENGTH = 32;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    // More followers first, then the older account
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::followerCount)
+            .reversed()
+            .thenComparingLong(Suggestion::id);
+
+    private final UserRepository userRepository;
+    private final SocialGraphIndex socialGraphIndex;
+    private final int topK;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Held while a new base is built, so merges, reranks and loads never overlap
+    private final ReentrantLock mergeLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(Keys.EMPTY, Map.of(), Keys.EMPTY);
+
+    public UserAutocompleteIndex(UserRepository userRepository, SocialGraphIndex socialGraphIndex,
+                                 @Value("${users.autocomplete.top-k}") int topK) {
+        this.userRepository = userRepository;
+        this.socialGraphIndex = socialGraphIndex;
+        this.topK = topK;
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        mergeLock.lock();
+        try {
+            // Changes committed before the read are in it; later ones stay in the delta
+            Map<Long, Suggestion> folded = snapshot.delta().users();
+            List<Suggestion> loaded = new ArrayList<>();
+            long lastId = 0;
+            List<UserSummary> batch;
+            do {
+                batch = userRepository.findSummariesAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (UserSummary user : batch) {
+                    loaded.add(suggestion(user.id(), user.username(), user.firstName(), user.lastName(),
+                            user.profilePicture()));
+                    lastId = user.id();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            install(loaded, folded);
+        } finally {
+            mergeLock.unlock();
+        }
+        Snapshot current = snapshot;
+        log.info("Loaded user autocomplete index: {} users, {} keys, {} ranked prefixes, ~{} KB in {} ms",
+                current.base().users().size(), current.base().keys().length, current.heavy().size(),
+                footprintBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Skipped when there is nothing to fold in, or while a rerank or load is already rebuilding
+    @Scheduled(fixedDelayString = "${users.autocomplete.merge-interval-ms}",
+            initialDelayString = "${users.autocomplete.merge-interval-ms}")
+    public void merge() {
+        if (snapshot.delta().users().isEmpty() || !mergeLock.tryLock()) {
+            return;
+        }
+        try {
+            rebuild(false);
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    // Follower counts change with every follow; the ranking catches up here instead
+    @Scheduled(fixedDelayString = "${users.autocomplete.rerank-interval-ms}",
+            initialDelayString = "${users.autocomplete.rerank-interval-ms}")
+    public void rerank() {
+        mergeLock.lock();
+        try {
+            rebuild(true);
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    public void put(Long id, String username, String firstName, String lastName, String profilePicture) {
+        Suggestion user = suggestion(id, username, firstName, lastName, profilePicture);
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Map<Long, Suggestion> changed = new HashMap<>(current.delta().users());
+            changed.put(user.id(), user);
+            snapshot = new Snapshot(current.base(), current.heavy(), sort(changed));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} (at most {@code users.autocomplete.top-k}) users with a key starting
+     * with the normalized {@code prefix}, most followed first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        Keys delta = current.delta();
+        List<Suggestion> result = baseMatches(current, normalized, limit);
+        int from = lowerBound(delta.keys(), normalized);
+        int to = upperBound(delta.keys(), normalized, from);
+        for (int i = from; i < to; i++) {
+            Suggestion user = delta.users().get(delta.owners()[i]);
+            if (!result.contains(user)) {
+                result.add(user);
+            }
+        }
+        result.sort(RANKING);
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    public int maxLimit() {
+        return topK;
+    }
+
+    // Users changed since the base was last built
+    int pendingChanges() {
+        return snapshot.delta().users().size();
+    }
+
+    // Key strings and arrays, the ranked lists, and one Suggestion per user, with object overheads
+    public long footprintBytes() {
+        Snapshot current = snapshot;
+        long bytes = 0;
+        for (Keys keys : List.of(current.base(), current.delta())) {
+            for (String key : keys.keys()) {
+                bytes += 56 + key.length() + 8;
+            }
+            bytes += keys.users().size() * 160L;
+        }
+        for (long[] ranked : current.heavy().values()) {
+            bytes += 80L + 8L * ranked.length;
+        }
+        return bytes;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String key = SPACES.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private Suggestion suggestion(long id, String username, String firstName, String lastName,
+                                  String profilePicture) {
+        return new Suggestion(id, username, firstName, lastName, profilePicture, socialGraphIndex.followerCount(id));
+    }
+
+    // Caller holds mergeLock
+    private void rebuild(boolean refreshCounts) {
+        Snapshot current = snapshot;
+        Map<Long, Suggestion> folded = current.delta().users();
+        Map<Long, Suggestion> all = new HashMap<>(current.base().users());
+        all.putAll(folded);
+        install(refreshCounts
+                ? all.values().stream()
+                        .map(user -> suggestion(user.id(), user.username(), user.firstName(), user.lastName(),
+                                user.profilePicture()))
+                        .toList()
+                : all.values(), folded);
+    }
+
+    // Builds a base from all users outside the write lock, then drops the delta entries it took in
+    private void install(Collection<Suggestion> all, Map<Long, Suggestion> folded) {
+        Map<Long, Suggestion> byId = new HashMap<>(all.size() * 2);
+        for (Suggestion user : all) {
+            byId.put(user.id(), user);
+        }
+        Keys base = sort(byId);
+        Map<String, long[]> heavy = new HashMap<>();
+        collectHeavy(base.keys(), base.owners(), "", 0, base.keys().length, base.users(), heavy);
+
+        writeLock.lock();
+        try {
+            // Users written again while the base was built keep their newer entry in the delta
+            Map<Long, Suggestion> changed = new HashMap<>(snapshot.delta().users());
+            folded.forEach((id, user) -> changed.remove(id, user));
+            snapshot = new Snapshot(base, heavy, sort(changed));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Keys sort(Map<Long, Suggestion> users) {
+        if (users.isEmpty()) {
+            return Keys.EMPTY;
+        }
+        List<Object[]> entries = new ArrayList<>(users.size() * 4);
+        for (Suggestion user : users.values()) {
+            for (String key : keys(user)) {
+                entries.add(new Object[]{key, user.id()});
+            }
+        }
+        entries.sort(Comparator.<Object[], String>comparing(entry -> (String) entry[0])
+                .thenComparingLong(entry -> (Long) entry[1]));
+        String[] keys = new String[entries.size()];
+        long[] owners = new long[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (String) entries.get(i)[0];
+            owners[i] = (Long) entries.get(i)[1];
+        }
+        return new Keys(keys, owners, Map.copyOf(users));
+    }
+
+    // Best base users for the prefix, leaving out those the delta has since replaced
+    private List<Suggestion> baseMatches(Snapshot current, String prefix, int limit) {
+        Keys base = current.base();
+        Map<Long, Suggestion> changed = current.delta().users();
+        long[] ranked = current.heavy().get(prefix);
+        if (ranked != null) {
+            List<Suggestion> result = new ArrayList<>(limit);
+            for (int i = 0; i < ranked.length && result.size() < limit; i++) {
+                if (!changed.containsKey(ranked[i])) {
+                    result.add(base.users().get(ranked[i]));
+                }
+            }
+            // A short list holds every owner in the range; a full one may have lost more users than its slack
+            if (result.size() == limit || ranked.length < topK + SLACK) {
+                return result;
+            }
+        }
+        int from = lowerBound(base.keys(), prefix);
+        int to = upperBound(base.keys(), prefix, from);
+        List<Suggestion> result = new ArrayList<>(limit);
+        for (long id : top(base.owners(), from, to, base.users(), changed, limit)) {
+            result.add(base.users().get(id));
+        }
+        return result;
+    }
+
+    // Every prefix whose range holds more than SCAN_LIMIT keys, found by splitting ranges on the next character
+    private void collectHeavy(String[] keys, long[] owners, String prefix, int from, int to,
+                              Map<Long, Suggestion> byId, Map<String, long[]> heavy) {
+        if (to - from <= SCAN_LIMIT) {
+            return;
+        }
+        if (!prefix.isEmpty()) {
+            heavy.put(prefix, top(owners, from, to, byId, Map.of(), topK + SLACK));
+        }
+        int depth = prefix.length();
+        int i = from;
+        while (i < to && keys[i].length() == depth) {
+            i++;
+        }
+        while (i < to) {
+            char next = keys[i].charAt(depth);
+            int end = i + 1;
+            while (end < to && keys[end].charAt(depth) == next) {
+                end++;
+            }
+            collectHeavy(keys, owners, keys[i].substring(0, depth + 1), i, end, byId, heavy);
+            i = end;
+        }
+    }
+
+    // Distinct owners in [from, to) not in skip, best size first; a user with several matching keys is counted once
+    private static long[] top(long[] owners, int from, int to, Map<Long, Suggestion> byId,
+                              Map<Long, Suggestion> skip, int size) {
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(size + 1, RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            Suggestion user = byId.get(owners[i]);
+            if (user == null || skip.containsKey(owners[i]) || !seen.add(owners[i])) {
+                continue;
+            }
+            best.add(user);
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+        long[] ids = new long[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll().id();
+        }
+        return ids;
+    }
+
+    private static String[] keys(Suggestion user) {
+        Set<String> keys = new TreeSet<>();
+        String username = normalize(user.username());
+        String firstName = normalize(user.firstName());
+        String lastName = normalize(user.lastName());
+        for (String key : List.of(username, firstName, lastName, normalize(firstName + " " + lastName))) {
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return keys.toArray(String[]::new);
+    }
+
+    // First key that is not less than the prefix
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First key at or after from that does not start with the prefix
+    private static int upperBound(String[] keys, String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,97 @@
+package com.socialconnect.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.socialconnect.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Local, size- and TTL-bounded cache of user rows keyed by username and by id, so
+ * the authenticated request path does not re-read the user on every call. Entries
+ * are detached snapshots: callers receive copies and must go through the
+ * repository for anything they intend to modify.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, User> byUsername;
+    private final Cache<Long, User> byId;
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${users.cache.max-size}") long maxSize,
+                     @Value("${users.cache.ttl-seconds}") long ttlSeconds) {
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "usersByUsername");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "usersById");
+    }
+
+    // Loads run outside the cache's compute so a JDBC call never holds a map bin monitor,
+    // which would pin the carrier thread under virtual threads; a racing miss loads twice
+    public Optional<User> getByUsername(String username, Function<String, Optional<User>> loader) {
+        User user = byUsername.getIfPresent(username);
+        if (user == null) {
+            user = loader.apply(username).map(this::index).orElse(null);
+        }
+        return Optional.ofNullable(user).map(UserCache::copy);
+    }
+
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        User user = byId.getIfPresent(id);
+        if (user == null) {
+            user = loader.apply(id).map(this::index).orElse(null);
+        }
+        return Optional.ofNullable(user).map(UserCache::copy);
+    }
+
+    public void invalidate(User user) {
+        byUsername.invalidate(user.getUsername());
+        byId.invalidate(user.getId());
+    }
+
+    public void invalidateAll() {
+        byUsername.invalidateAll();
+        byId.invalidateAll();
+    }
+
+    private User index(User user) {
+        User snapshot = copy(user);
+        byUsername.put(snapshot.getUsername(), snapshot);
+        byId.put(snapshot.getId(), snapshot);
+        return snapshot;
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .bio(user.getBio())
+                .profilePicture(user.getProfilePicture())
+                .followerCount(user.getFollowerCount())
+                .followingCount(user.getFollowingCount())
+                .timelinePulled(user.getTimelinePulled())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .version(user.getVersion())
+                .build();
+    }
+}
@@ -14,14 +14,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -29,18 +23,25 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SocialGraphIndex socialGraphIndex;
+    private final UserCache userCache;
+    private final SearchIndex searchIndex;
+    private final UserAutocompleteIndex userAutocompleteIndex;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Value("${admin.usernames}")
+    private List<String> adminUsernames;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.getByUsername(username, userRepository::findByUsername)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        String[] roles = adminUsernames.contains(user.getUsername())
+                ? new String[]{"USER", "ADMIN"}
+                : new String[]{"USER"};
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
-                .roles("USER")
+                .roles(roles)
                 .build();
     }
 
@@ -61,22 +62,33 @@ public class UserService implements UserDetailsService {
                 .lastName(request.getLastName())
                 .build();
 
-        user = userRepository.save(user);
+        user = userRepository.saveAndFlush(user);
+        Long userId = user.getId();
+        User registered = user;
+        AfterCommit.run(() -> {
+            socialGraphIndex.addUser(userId);
+            userCache.invalidate(registered); // Drop any entry cached for this name before it existed
+            searchIndex.indexUser(userId, registered.getUsername(), registered.getFirstName(), registered.getLastName());
+            userAutocompleteIndex.put(userId, registered.getUsername(), registered.getFirstName(),
+                    registered.getLastName(), registered.getProfilePicture());
+        });
         return mapToResponse(user);
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return mapToResponse(user);
+        return mapToResponse(getEntityById(id));
+    }
+
+    // Served from the user cache; updatedAt moves with every change to the profile body
+    public CacheValidator getUserValidator(Long id) {
+        User user = getEntityById(id);
+        return CacheValidator.of(user.getUpdatedAt(), id, user.getVersion());
     }
 
     @Transactional(readOnly = true)
     public UserResponse getCurrentUser(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
-        return mapToResponse(user);
+        return mapToResponse(getEntityByUsername(username));
     }
 
     @Transactional
@@ -95,65 +107,52 @@ public class UserService implements UserDetailsService {
         }
 
         user = userRepository.save(user);
+        evictAfterCommit(user);
+        User updated = user;
+        AfterCommit.run(() -> {
+            searchIndex.indexUser(updated.getId(), updated.getUsername(), updated.getFirstName(), updated.getLastName());
+            userAutocompleteIndex.put(updated.getId(), updated.getUsername(), updated.getFirstName(),
+                    updated.getLastName(), updated.getProfilePicture());
+        });
         return mapToResponse(user);
     }
 
+    // Called by ProfilePictureService once the variants are on disk; returns the picture it replaced
     @Transactional
-    public UserResponse uploadProfilePicture(String username, MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File is empty");
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("File must be an image");
-        }
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    public String setProfilePicture(Long userId, String hash) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        String previous = user.getProfilePicture();
+        user.setProfilePicture(hash);
+        evictAfterCommit(user);
+        AfterCommit.run(() -> userAutocompleteIndex.put(user.getId(), user.getUsername(), user.getFirstName(),
+                user.getLastName(), hash));
+        return previous;
+    }
 
-        try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : "";
-            String filename = UUID.randomUUID().toString() + extension;
-
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Delete old profile picture if exists
-            if (user.getProfilePicture() != null) {
-                Path oldFilePath = uploadPath.resolve(user.getProfilePicture());
-                if (Files.exists(oldFilePath)) {
-                    Files.delete(oldFilePath);
-                }
-            }
-
-            // Update user profile picture
-            user.setProfilePicture(filename);
-            user = userRepository.save(user);
-
-            return mapToResponse(user);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload profile picture: " + e.getMessage(), e);
-        }
+    @Transactional(readOnly = true)
+    public boolean isProfilePictureInUse(String profilePicture) {
+        return userRepository.existsByProfilePicture(profilePicture);
     }
 
     @Transactional(readOnly = true)
     public User getEntityByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userCache.getByUsername(username, userRepository::findByUsername)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
     }
 
+    @Transactional(readOnly = true)
+    public User getEntityById(Long id) {
+        return userCache.getById(id, userRepository::findById)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    // Evicting again after commit stops a concurrent read from re-caching the pre-update row
+    private void evictAfterCommit(User user) {
+        userCache.invalidate(user);
+        AfterCommit.run(() -> userCache.invalidate(user));
+    }
+
     private UserResponse mapToResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
@@ -162,7 +161,7 @@ public class UserService implements UserDetailsService {
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
                 .bio(user.getBio())
-                .profilePicture(user.getProfilePicture())
+                .profilePicture(ProfilePictureVariant.MEDIUM.url(user.getProfilePicture()))
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
                 .build();
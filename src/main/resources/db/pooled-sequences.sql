@@ -0,0 +1,31 @@
+-- Moves a database created with IDENTITY ids onto the pooled sequences the entities now use.
+-- Run once against an existing file database, before starting the new version:
+--   java -cp h2-*.jar org.h2.tools.RunScript -url jdbc:h2:file:./data/socialconnect -user sa \
+--        -script src/main/resources/db/pooled-sequences.sql
+-- Hibernate's pooled optimizer treats each sequence value as the top of a block of 50 ids,
+-- so every sequence restarts 50 above the current maximum id and the first new id is MAX(id) + 1.
+-- Fresh databases need none of this: ddl-auto creates the sequences.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+
+CREATE SEQUENCE IF NOT EXISTS posts_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE posts_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM posts);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM comments);
+
+CREATE SEQUENCE IF NOT EXISTS likes_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE likes ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE likes_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM likes);
+
+CREATE SEQUENCE IF NOT EXISTS follows_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE follows ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE follows_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM follows);
+
+CREATE SEQUENCE IF NOT EXISTS timeline_entries_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE timeline_entries ALTER COLUMN id DROP IDENTITY;
+ALTER SEQUENCE timeline_entries_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM timeline_entries);
@@ -0,0 +1,158 @@
+package com.socialconnect;
+
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.service.FollowService;
+import com.socialconnect.service.LikeService;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The batch endpoints answer per id: unknown ids are reported or left out rather than
+ * failing the request, duplicates count once, and a request carries at most 100 ids.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchEndpointsTest {
+
+    // Never handed out by the sequences within a test run
+    private static final long MISSING = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private FollowService followService;
+
+    private UserResponse viewer;
+
+    @BeforeEach
+    void setUp() {
+        viewer = userService.register(registerRequest("batch_viewer"));
+    }
+
+    @Test
+    void postBatchKeepsRequestOrderAndLeavesOutUnknownIds() throws Exception {
+        UserResponse author = userService.register(registerRequest("batch_author"));
+        Long first = createPost(author);
+        Long second = createPost(author);
+        Long third = createPost(author);
+        likeService.likePost(second, viewer.getUsername());
+
+        mockMvc.perform(get("/api/posts/batch").with(user(viewer.getUsername()))
+                        .param("ids", ids(third, MISSING, first, second, third)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(third.intValue(), first.intValue(), second.intValue())))
+                .andExpect(jsonPath("$[*].isLiked").value(contains(false, false, true)));
+    }
+
+    @Test
+    void likeStatusesAnswerEveryRequestedId() throws Exception {
+        UserResponse author = userService.register(registerRequest("batch_author"));
+        Long liked = createPost(author);
+        Long notLiked = createPost(author);
+        likeService.likePost(liked, viewer.getUsername());
+
+        mockMvc.perform(get("/api/likes/status").with(user(viewer.getUsername()))
+                        .param("postIds", ids(liked, notLiked, MISSING, liked)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$['" + liked + "']").value(true))
+                .andExpect(jsonPath("$['" + notLiked + "']").value(false))
+                .andExpect(jsonPath("$['" + MISSING + "']").value(false));
+    }
+
+    @Test
+    void followBatchReportsEachIdsOutcome() throws Exception {
+        UserResponse fresh = userService.register(registerRequest("batch_fresh"));
+        UserResponse followed = userService.register(registerRequest("batch_followed"));
+        followService.followUser(followed.getId(), viewer.getUsername());
+
+        mockMvc.perform(post("/api/follows/batch").with(user(viewer.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + ids(fresh.getId(), followed.getId(), viewer.getId(), MISSING, fresh.getId()) + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(contains(fresh.getId().intValue())))
+                .andExpect(jsonPath("$.skipped").value(contains(followed.getId().intValue(), viewer.getId().intValue())))
+                .andExpect(jsonPath("$.notFound").value(contains(MISSING)));
+
+        assertThat(followService.getFollowerCount(fresh.getId())).isEqualTo(1);
+        assertThat(followService.getFollowingCount(viewer.getId())).isEqualTo(2);
+        assertThat(followService.isFollowing(viewer.getId(), viewer.getUsername())).isFalse();
+
+        // Nothing left to apply the second time
+        mockMvc.perform(post("/api/follows/batch").with(user(viewer.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + fresh.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(empty()))
+                .andExpect(jsonPath("$.skipped").value(contains(fresh.getId().intValue())));
+        assertThat(followService.getFollowerCount(fresh.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void batchesTakeAtMostOneHundredIds() throws Exception {
+        String hundred = LongStream.rangeClosed(1, 100).mapToObj(Long::toString).collect(Collectors.joining(","));
+        String hundredAndOne = hundred + ",101";
+
+        mockMvc.perform(get("/api/posts/batch").with(user(viewer.getUsername())).param("ids", hundred))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/posts/batch").with(user(viewer.getUsername())).param("ids", hundredAndOne))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 100 ids per request"));
+        // Duplicates are dropped before the limit is applied
+        mockMvc.perform(get("/api/likes/status").with(user(viewer.getUsername())).param("postIds", hundred + ",1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(100));
+        mockMvc.perform(get("/api/likes/status").with(user(viewer.getUsername())).param("postIds", hundredAndOne))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/follows/batch").with(user(viewer.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + hundredAndOne + "]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/follows/batch").with(user(viewer.getUsername()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createPost(UserResponse author) {
+        CreatePostRequest request = new CreatePostRequest();
+        request.setContent("Batched");
+        return postService.createPost(author.getUsername(), request).getId();
+    }
+
+    private static String ids(Long... ids) {
+        return Arrays.stream(ids).map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
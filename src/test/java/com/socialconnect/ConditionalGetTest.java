@@ -0,0 +1,131 @@
+package com.socialconnect;
+
+import com.socialconnect.dto.request.CreateCommentRequest;
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.request.UpdatePostRequest;
+import com.socialconnect.dto.request.UpdateProfileRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.service.CommentService;
+import com.socialconnect.service.LikeService;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs on the polled endpoints: a matching If-None-Match gets an empty 304,
+ * and every write the body depends on changes the ETag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
+
+    private UserResponse author;
+    private UserResponse viewer;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        author = userService.register(registerRequest("etag_author"));
+        viewer = userService.register(registerRequest("etag_viewer"));
+        CreatePostRequest post = new CreatePostRequest();
+        post.setContent("Conditional");
+        postId = postService.createPost(author.getUsername(), post).getId();
+    }
+
+    @Test
+    void postAnswers304UntilEditedOrLiked() throws Exception {
+        String path = "/api/posts/" + postId;
+        String eTag = assertNotModified(path);
+
+        likeService.likePost(postId, author.getUsername());
+        String liked = assertModified(path, eTag);
+
+        UpdatePostRequest update = new UpdatePostRequest();
+        update.setContent("Edited");
+        postService.updatePost(postId, author.getUsername(), update);
+        assertModified(path, liked);
+    }
+
+    @Test
+    void profileAnswers304UntilUpdated() throws Exception {
+        String path = "/api/auth/" + author.getId();
+        String eTag = assertNotModified(path);
+        String lastModified = mockMvc.perform(get(path).with(user(viewer.getUsername())))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertThat(lastModified).isNotNull();
+        mockMvc.perform(get(path).with(user(viewer.getUsername()))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        UpdateProfileRequest update = new UpdateProfileRequest();
+        update.setBio("Changed");
+        userService.updateProfile(author.getUsername(), update);
+        assertModified(path, eTag);
+    }
+
+    @Test
+    void commentListAnswers304UntilACommentIsAddedOrDeleted() throws Exception {
+        String path = "/api/comments/post/" + postId;
+        String eTag = assertNotModified(path);
+
+        CreateCommentRequest comment = new CreateCommentRequest();
+        comment.setContent("First");
+        Long commentId = commentService.createComment(postId, viewer.getUsername(), comment).getId();
+        String commented = assertModified(path, eTag);
+
+        commentService.deleteComment(commentId, viewer.getUsername());
+        assertModified(path, commented);
+    }
+
+    // Fetches the current ETag and checks that sending it back gets an empty 304
+    private String assertNotModified(String path) throws Exception {
+        String eTag = mockMvc.perform(get(path).with(user(viewer.getUsername())))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(path).with(user(viewer.getUsername())).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        return eTag;
+    }
+
+    // Sends a stale ETag, expects the full body with a new one, and returns it
+    private String assertModified(String path, String staleETag) throws Exception {
+        String eTag = mockMvc.perform(get(path).with(user(viewer.getUsername()))
+                        .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull().isNotEqualTo(staleETag);
+        return eTag;
+    }
+}
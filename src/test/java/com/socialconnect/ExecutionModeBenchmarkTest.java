@@ -0,0 +1,198 @@
+package com.socialconnect;
+
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.entity.User;
+import com.socialconnect.repository.UserRepository;
+import com.socialconnect.service.FollowService;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.SocialGraphIndex;
+import com.socialconnect.service.TokenService;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Load comparison of the platform-thread and virtual-thread execution modes for the
+ * feed and like endpoints. Opt-in, and only meaningful on Java 21+:
+ * {@code mvn -Pjava21 test -Dtest=ExecutionModeBenchmarkTest -Dbenchmarks=true}.
+ * More clients than Tomcat's 200 worker threads are used so the platform pool queues.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ExecutionModeBenchmarkTest {
+
+    private static final int USERS = 400;
+    private static final int FOLLOWS_PER_USER = 20;
+    private static final int POSTS_PER_USER = 10;
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 15));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newFixedThreadPool(8))
+            .build();
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            if (virtual && Runtime.version().feature() < 21) {
+                rows.add("virtual   (skipped: requires Java 21, running on " + Runtime.version().feature() + ")");
+                continue;
+            }
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                Fixture fixture = seed(context);
+                String mode = virtual ? "virtual " : "platform";
+                rows.add(mode + "  " + run("feed", fixture, this::feedRequest));
+                rows.add(mode + "  " + run("likes", fixture, this::likeRequests));
+            }
+        }
+
+        System.out.printf("%nclients=%d measurement=%ds%n", CLIENTS, MEASUREMENT.toSeconds());
+        System.out.println("mode      scenario  req/s       p50 ms    p99 ms    max ms    errors");
+        rows.forEach(System.out::println);
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        // Command-line arguments, since builder properties are defaults that application.properties overrides
+        return new SpringApplicationBuilder(SocialConnectApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + (virtual ? "virtual" : "platform"),
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--auth.mode=token");
+    }
+
+    private Fixture seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        SocialGraphIndex socialGraphIndex = context.getBean(SocialGraphIndex.class);
+        FollowService followService = context.getBean(FollowService.class);
+        PostService postService = context.getBean(PostService.class);
+        TokenService tokenService = context.getBean(TokenService.class);
+
+        String password = context.getBean(PasswordEncoder.class).encode("secret123");
+        List<User> users = userRepository.saveAll(IntStream.range(0, USERS)
+                .mapToObj(i -> User.builder()
+                        .username("bench" + i)
+                        .email("bench" + i + "@example.com")
+                        .password(password)
+                        .firstName("Bench")
+                        .lastName("User" + i)
+                        .build())
+                .toList());
+        users.forEach(user -> socialGraphIndex.addUser(user.getId()));
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (User user : users) {
+            random.ints(0, USERS).distinct()
+                    .filter(i -> !users.get(i).getId().equals(user.getId()))
+                    .limit(FOLLOWS_PER_USER)
+                    .forEach(i -> followService.followUser(users.get(i).getId(), user.getUsername()));
+        }
+        List<Long> postIds = new ArrayList<>();
+        for (User user : users) {
+            for (int i = 0; i < POSTS_PER_USER; i++) {
+                CreatePostRequest request = new CreatePostRequest();
+                request.setContent("Post " + i + " by " + user.getUsername());
+                postIds.add(postService.createPost(user.getUsername(), request).getId());
+            }
+        }
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        List<String> tokens = users.stream()
+                .map(user -> tokenService.issue(user.getUsername(), List.of("ROLE_USER"), TokenService.Type.ACCESS))
+                .toList();
+        return new Fixture(baseUrl, tokens, postIds);
+    }
+
+    private String run(String scenario, Fixture fixture, Scenario requests) throws InterruptedException {
+        Histogram histogram = new Histogram(TimeUnit.SECONDS.toNanos(60), 3);
+        List<Histogram> perClient = new CopyOnWriteArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+        long end = warmupEnd + MEASUREMENT.toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientId = c;
+            clients.submit(() -> {
+                String token = fixture.tokens().get(clientId % fixture.tokens().size());
+                Histogram latencies = new Histogram(TimeUnit.SECONDS.toNanos(60), 3);
+                perClient.add(latencies);
+                while (System.nanoTime() < end) {
+                    for (HttpRequest request : requests.next(fixture, token)) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long finished = System.nanoTime();
+                        if (start >= warmupEnd && finished < end) {
+                            latencies.recordValue(finished - start);
+                            if (status < 200 || status >= 300) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(WARMUP.plus(MEASUREMENT).toSeconds() + 60, TimeUnit.SECONDS);
+        perClient.forEach(histogram::add);
+
+        return String.format("%-8s  %-10.0f  %-8.2f  %-8.2f  %-8.2f  %d", scenario,
+                histogram.getTotalCount() / (double) MEASUREMENT.toSeconds(),
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getMaxValue() / 1e6,
+                errors.get());
+    }
+
+    private List<HttpRequest> feedRequest(Fixture fixture, String token) {
+        return List.of(authorized(fixture.baseUrl() + "/api/posts/feed?limit=20", token).GET().build());
+    }
+
+    // Like then unlike, so each client's user never collides with its own earlier like
+    private List<HttpRequest> likeRequests(Fixture fixture, String token) {
+        Long postId = fixture.postIds().get(ThreadLocalRandom.current().nextInt(fixture.postIds().size()));
+        String url = fixture.baseUrl() + "/api/likes/post/" + postId;
+        return List.of(
+                authorized(url, token).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                authorized(url, token).DELETE().build());
+    }
+
+    private static HttpRequest.Builder authorized(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token);
+    }
+
+    private record Fixture(String baseUrl, List<String> tokens, List<Long> postIds) {
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        List<HttpRequest> next(Fixture fixture, String token);
+    }
+}
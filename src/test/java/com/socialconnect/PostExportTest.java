@@ -0,0 +1,102 @@
+package com.socialconnect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.repository.PostRepository;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The export carries every author's email, so only admins may stream it. Its body
+ * is checked over more posts than one fetch batch of the export query.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PostExportTest {
+
+    // Above the export query's fetch size of 500
+    private static final int POSTS = 600;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Test
+    void exportIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/posts/export").with(user("export_user")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/posts/export").with(user("export_admin").roles("USER", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+    }
+
+    @Test
+    void bothFormatsWriteEveryPostOnceNewestFirst() throws Exception {
+        UserResponse author = userService.register(registerRequest("export_author"));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            CreatePostRequest request = new CreatePostRequest();
+            request.setContent("Exported post " + i);
+            expected.add(postService.createPost(author.getUsername(), request).getId());
+        }
+        Collections.reverse(expected);
+        long total = postRepository.count();
+
+        String ndjson = export("ndjson");
+        assertThat(ndjson).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertExported(lines, author, expected, total);
+
+        List<JsonNode> array = new ArrayList<>();
+        objectMapper.readTree(export("json")).forEach(array::add);
+        assertExported(array, author, expected, total);
+    }
+
+    private String export(String format) throws Exception {
+        return mockMvc.perform(get("/api/posts/export?format=" + format).with(user("export_admin").roles("USER", "ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    // Other tests' posts share the database, so order is checked on this author's posts
+    private static void assertExported(List<JsonNode> posts, UserResponse author, List<Long> expected, long total) {
+        List<Long> ids = posts.stream().map(post -> post.get("id").asLong()).toList();
+        assertThat(ids).hasSize((int) total).doesNotHaveDuplicates();
+        assertThat(posts.stream()
+                .filter(post -> post.get("author").get("username").asText().equals(author.getUsername()))
+                .map(post -> post.get("id").asLong()))
+                .containsExactlyElementsOf(expected);
+    }
+}
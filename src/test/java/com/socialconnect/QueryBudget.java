@@ -0,0 +1,31 @@
+package com.socialconnect;
+
+import com.socialconnect.config.QueryCount;
+import org.junit.jupiter.api.function.Executable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds a block of code, typically one MockMvc request, to a budget of JDBC
+ * statements. Counting is per thread, and MockMvc handles requests on the calling
+ * thread, so work done by other requests or scheduled jobs is not included.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static QueryCount measure(Executable action) throws Throwable {
+        QueryCount start = QueryCount.current();
+        action.execute();
+        return QueryCount.current().since(start);
+    }
+
+    public static QueryCount assertAtMost(long statements, String description, Executable action) throws Throwable {
+        QueryCount count = measure(action);
+        assertThat(count.statements())
+                .as("%s ran %s, over its budget of %d statements", description, count, statements)
+                .isLessThanOrEqualTo(statements);
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package com.socialconnect;
+
+import com.socialconnect.config.QueryCount;
+import com.socialconnect.dto.request.CreateCommentRequest;
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.service.CommentService;
+import com.socialconnect.service.FollowService;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the list endpoints. Each page has 20 items from 20 different
+ * authors, so an N+1 on authors, likes or follows blows the budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    private static final int ITEMS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    private UserResponse viewer;
+    private List<Long> postIds;
+
+    @BeforeEach
+    void setUp() {
+        viewer = userService.register(registerRequest("budget_viewer"));
+        postIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            UserResponse author = userService.register(registerRequest("budget_author" + i));
+            followService.followUser(author.getId(), viewer.getUsername());
+            CreatePostRequest post = new CreatePostRequest();
+            post.setContent("Post " + i);
+            postIds.add(postService.createPost(author.getUsername(), post).getId());
+            CreateCommentRequest comment = new CreateCommentRequest();
+            comment.setContent("Comment " + i);
+            commentService.createComment(postIds.get(0), author.getUsername(), comment);
+        }
+    }
+
+    @Test
+    void feedPageStaysWithinBudget() throws Throwable {
+        QueryCount count = QueryBudget.assertAtMost(4, "GET /api/posts/feed", () ->
+                mockMvc.perform(get("/api/posts/feed?limit=" + ITEMS).with(user(viewer.getUsername())))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items.length()").value(ITEMS)));
+        assertThat(count.rows()).isGreaterThanOrEqualTo(ITEMS);
+    }
+
+    @Test
+    void commentsPageStaysWithinBudget() throws Throwable {
+        QueryBudget.assertAtMost(2, "GET /api/comments/post/{postId}", () ->
+                mockMvc.perform(get("/api/comments/post/" + postIds.get(0) + "?limit=" + ITEMS).with(user(viewer.getUsername())))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items.length()").value(ITEMS)));
+    }
+
+    @Test
+    void batchReadsStayWithinBudget() throws Throwable {
+        String ids = postIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        QueryBudget.assertAtMost(4, "GET /api/posts/batch", () ->
+                mockMvc.perform(get("/api/posts/batch?ids=" + ids).with(user(viewer.getUsername())))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(ITEMS)));
+        QueryBudget.assertAtMost(2, "GET /api/likes/status", () ->
+                mockMvc.perform(get("/api/likes/status?postIds=" + ids).with(user(viewer.getUsername())))
+                        .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.socialconnect;
+
+import com.socialconnect.dto.request.RegisterRequest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Names for test users and search terms. Every Spring context in a test run shares
+ * one in-memory database, so names must never repeat within the JVM; a counter
+ * guarantees that where a clock-derived suffix only made collisions unlikely.
+ */
+public final class TestUsers {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestUsers() {
+    }
+
+    public static String unique(String prefix) {
+        return prefix + SEQUENCE.incrementAndGet();
+    }
+
+    public static RegisterRequest registerRequest(String prefix) {
+        String username = unique(prefix + "_");
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("secret123");
+        request.setFirstName("First");
+        request.setLastName("Last");
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package com.socialconnect.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.socialconnect.TestUsers.unique;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A stale bearer token is rejected on protected endpoints but ignored by the endpoints
+ * a client needs to recover from it.
+ */
+@SpringBootTest(properties = {
+        "auth.mode=token",
+        "auth.token.signing-key-id=k1",
+        "auth.token.keys.k1=MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE="
+})
+@AutoConfigureMockMvc
+class TokenAuthenticationFilterTest {
+
+    private static final String STALE = "Bearer not.a-valid-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String username;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        username = unique("token_");
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                                + "@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    @Test
+    void staleTokenIsRejectedOnProtectedEndpoints() throws Exception {
+        mockMvc.perform(get("/api/posts/feed").header(HttpHeaders.AUTHORIZATION, STALE))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+        mockMvc.perform(get("/api/auth/me").header(HttpHeaders.AUTHORIZATION, STALE))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void staleTokenDoesNotBlockLoginOrRefresh() throws Exception {
+        JsonNode tokens = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .header(HttpHeaders.AUTHORIZATION, STALE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        String refreshed = mockMvc.perform(post("/api/auth/refresh")
+                        .header(HttpHeaders.AUTHORIZATION, STALE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + tokens.get("refreshToken").asText() + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/auth/me").header(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + objectMapper.readTree(refreshed).get("accessToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(username));
+    }
+}
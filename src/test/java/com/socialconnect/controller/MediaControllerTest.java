@@ -0,0 +1,137 @@
+package com.socialconnect.controller;
+
+import com.socialconnect.config.ProfilePictureProperties;
+import com.socialconnect.exception.GlobalExceptionHandler;
+import com.socialconnect.service.ProfilePictureStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ranges and validators on stored pictures. MockMvc sets no sendfile attribute, so the
+ * bodies here go through the {@code transferTo} fallback.
+ */
+class MediaControllerTest {
+
+    private static final String PATH = "/media/profile-pictures/legacy.jpg";
+
+    @TempDir
+    Path root;
+
+    private MockMvc mockMvc;
+    private byte[] bytes;
+    private String eTag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bytes = new byte[100];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        Files.write(root.resolve("legacy.jpg"), bytes);
+        ProfilePictureStore store = new ProfilePictureStore(root.toString(), new ProfilePictureProperties());
+        mockMvc = MockMvcBuilders.standaloneSetup(new MediaController(store))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        eTag = mockMvc.perform(get(PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(bytes))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void singleRangeReturnsPartialContent() throws Exception {
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 10, 20)));
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 95, 100)));
+        // An end past the file is clamped to its last byte
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=90-500"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 90-99/100"));
+    }
+
+    @Test
+    void severalRangesGetTheWholeFile() throws Exception {
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void ifRangeHonoursTheRangeOnlyForTheCurrentETag() throws Exception {
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, eTag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 0, 4)));
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(get(PATH).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void matchingValidatorsReturnNotModified() throws Exception {
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+        String lastModified = mockMvc.perform(get(PATH)).andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        // A validator check comes before the range, so a cached client is not sent bytes it has
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, eTag).header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void headSendsHeadersWithoutABody() throws Exception {
+        mockMvc.perform(head(PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void unknownAndHiddenFilesAreNotFound() throws Exception {
+        Files.write(root.resolve(".incoming"), bytes);
+        mockMvc.perform(get("/media/profile-pictures/missing.jpg"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/media/profile-pictures/.incoming"))
+                .andExpect(status().isNotFound());
+    }
+}
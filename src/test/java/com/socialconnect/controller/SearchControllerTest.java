@@ -0,0 +1,82 @@
+package com.socialconnect.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.service.PostService;
+import com.socialconnect.service.SearchIndex;
+import com.socialconnect.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static com.socialconnect.TestUsers.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "search.refresh-interval-ms=3600000")
+@AutoConfigureMockMvc
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Test
+    void postSearchPagesThroughCursors() throws Exception {
+        UserResponse author = userService.register(registerRequest("search_http"));
+        String term = unique("http");
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CreatePostRequest request = new CreatePostRequest();
+            request.setContent(term + " post " + i);
+            created.add(postService.createPost(author.getUsername(), request).getId());
+        }
+        searchIndex.refresh();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/search/posts?limit=2&q=" + term + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url).with(user(author.getUsername())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.limit").value(2))
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> {
+                assertThat(item.get("content").asText()).contains(term);
+                seen.add(item.get("id").asLong());
+            });
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/search/posts?q=anything&cursor=not-a-cursor").with(user("search_http")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: not-a-cursor"));
+    }
+}
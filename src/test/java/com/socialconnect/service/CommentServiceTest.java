@@ -0,0 +1,116 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.request.CreateCommentRequest;
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * reply_count and the post's comment_count follow replies and deletes, and deleting a
+ * comment takes its whole subtree with it, including other users' replies.
+ */
+@SpringBootTest
+class CommentServiceTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserService userService;
+
+    private UserResponse alice;
+    private UserResponse bob;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        alice = userService.register(registerRequest("comment_alice"));
+        bob = userService.register(registerRequest("comment_bob"));
+        CreatePostRequest post = new CreatePostRequest();
+        post.setContent("Thread");
+        postId = postService.createPost(alice.getUsername(), post).getId();
+    }
+
+    @Test
+    void replyCountFollowsRepliesAndDeletes() {
+        Long root = comment(alice);
+        Long first = reply(root, bob);
+        reply(root, alice);
+        assertThat(commentService.getCommentById(root).getReplyCount()).isEqualTo(2);
+        assertThat(commentService.getCommentById(first).getReplyCount()).isZero();
+        assertThat(commentCount()).isEqualTo(3);
+
+        commentService.deleteComment(first, bob.getUsername());
+
+        assertThat(commentService.getCommentById(root).getReplyCount()).isEqualTo(1);
+        assertThat(commentService.getReplies(root, null, 20).getItems()).hasSize(1);
+        assertThat(commentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deletingACommentRemovesItsWholeSubtree() {
+        Long root = comment(alice);
+        Long branch = reply(root, alice);
+        Long sibling = reply(root, bob);
+        Long child = reply(branch, bob);
+        Long grandchild = reply(child, alice);
+        Long otherChild = reply(branch, bob);
+        assertThat(commentService.getCommentById(branch).getReplyCount()).isEqualTo(2);
+        assertThat(commentCount()).isEqualTo(6);
+
+        commentService.deleteComment(branch, alice.getUsername());
+
+        for (Long id : new Long[]{branch, child, grandchild, otherChild}) {
+            assertThatThrownBy(() -> commentService.getCommentById(id))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+        assertThat(commentService.getCommentById(sibling).getReplyCount()).isZero();
+        assertThat(commentService.getCommentById(root).getReplyCount()).isEqualTo(1);
+        assertThat(commentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deletingATopLevelCommentLeavesOtherThreadsAlone() {
+        Long doomed = comment(alice);
+        reply(reply(doomed, bob), bob);
+        Long kept = comment(bob);
+        reply(kept, alice);
+
+        commentService.deleteComment(doomed, alice.getUsername());
+
+        assertThat(commentService.getCommentsByPost(postId, null, 20).getItems())
+                .singleElement()
+                .satisfies(comment -> {
+                    assertThat(comment.getId()).isEqualTo(kept);
+                    assertThat(comment.getReplyCount()).isEqualTo(1);
+                });
+        assertThat(commentCount()).isEqualTo(2);
+    }
+
+    private Long comment(UserResponse author) {
+        CreateCommentRequest request = new CreateCommentRequest();
+        request.setContent("Comment");
+        return commentService.createComment(postId, author.getUsername(), request).getId();
+    }
+
+    private Long reply(Long parentId, UserResponse author) {
+        CreateCommentRequest request = new CreateCommentRequest();
+        request.setContent("Reply");
+        return commentService.createReply(parentId, author.getUsername(), request).getId();
+    }
+
+    private long commentCount() {
+        return postService.getPostById(postId, null).getCommentCount();
+    }
+}
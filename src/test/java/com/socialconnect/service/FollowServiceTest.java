@@ -0,0 +1,118 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.response.UserListResponse;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.entity.Follow;
+import com.socialconnect.entity.User;
+import com.socialconnect.exception.ResourceNotFoundException;
+import com.socialconnect.repository.FollowRepository;
+import com.socialconnect.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static com.socialconnect.TestUsers.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts come from the counter columns, and users this node's graph index has not seen,
+ * such as ones registered on another node, are still found. Lists are paged, and a
+ * follow the index missed is caught by the unique constraint.
+ */
+@SpringBootTest
+class FollowServiceTest {
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SocialGraphIndex socialGraphIndex;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Test
+    void userMissingFromIndexIsFollowableAndCounted() {
+        String name = unique("remote_");
+        // Saved directly, so the registration hook that adds the user to the index never runs
+        User remote = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-hash")
+                .build());
+        UserResponse local = userService.register(registerRequest("local"));
+        assertThat(socialGraphIndex.containsUser(remote.getId())).isFalse();
+
+        assertThat(followService.getFollowers(remote.getId(), 0, 20).getUsers()).isEmpty();
+        followService.followUser(remote.getId(), local.getUsername());
+
+        assertThat(followService.getFollowerCount(remote.getId())).isEqualTo(1);
+        assertThat(followService.getFollowingCount(local.getId())).isEqualTo(1);
+        assertThat(followService.isFollowing(remote.getId(), local.getUsername())).isTrue();
+    }
+
+    @Test
+    void followerListsArePagedAndCountedFromTheColumns() {
+        UserResponse star = userService.register(registerRequest("star"));
+        List<Long> fans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UserResponse fan = userService.register(registerRequest("fan" + i));
+            followService.followUser(star.getId(), fan.getUsername());
+            fans.add(fan.getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        long after = 0;
+        int pages = 0;
+        UserListResponse page;
+        do {
+            page = followService.getFollowers(star.getId(), after, 2);
+            assertThat(page.getTotalCount()).isEqualTo(5);
+            assertThat(page.getUsers()).hasSizeLessThanOrEqualTo(2);
+            page.getUsers().forEach(user -> seen.add(user.getId()));
+            after = page.getNextAfter() != null ? page.getNextAfter() : -1;
+            pages++;
+        } while (page.getNextAfter() != null);
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(fans);
+
+        UserListResponse following = followService.getFollowing(fans.get(0), 0, 20);
+        assertThat(following.getUsers()).extracting(UserResponse::getId).containsExactly(star.getId());
+        assertThat(following.getTotalCount()).isEqualTo(1);
+        assertThat(following.getNextAfter()).isNull();
+        assertThatThrownBy(() -> followService.getFollowers(Long.MAX_VALUE, 0, 20))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void followTheIndexMissedIsRejectedByTheConstraint() {
+        UserResponse star = userService.register(registerRequest("star"));
+        UserResponse fan = userService.register(registerRequest("fan"));
+        // As if followed through another node: in the database, not in this node's index
+        followRepository.save(Follow.builder()
+                .follower(userRepository.getReferenceById(fan.getId()))
+                .following(userRepository.getReferenceById(star.getId()))
+                .build());
+        assertThat(socialGraphIndex.isFollowing(fan.getId(), star.getId())).isFalse();
+
+        assertThatThrownBy(() -> followService.followUser(star.getId(), fan.getUsername()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Already following this user");
+        assertThatThrownBy(() -> followService.followUsers(List.of(star.getId()), fan.getUsername()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(followService.getFollowingCount(fan.getId())).isZero();
+        assertThat(followService.getFollowerCount(star.getId())).isZero();
+    }
+}
@@ -0,0 +1,161 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.request.RegisterRequest;
+import com.socialconnect.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.socialconnect.TestUsers.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pending deltas leave memory only once the flush that wrote them commits, reconcile
+ * counts unflushed likes once, and retiring idle adders never drops a concurrent like.
+ */
+@SpringBootTest(properties = "likes.counter.flush-interval-ms=3600000")
+class LikeCounterTest {
+
+    @Autowired
+    private LikeCounter likeCounter;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LikeService likeService;
+
+    private String username;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        username = unique("counter_");
+        RegisterRequest register = new RegisterRequest();
+        register.setUsername(username);
+        register.setEmail(username + "@example.com");
+        register.setPassword("secret123");
+        userService.register(register);
+        CreatePostRequest post = new CreatePostRequest();
+        post.setContent("Counted");
+        postId = postService.createPost(username, post).getId();
+    }
+
+    @Test
+    void flushMovesPendingDeltaIntoColumn() {
+        likeCounter.increment(postId);
+        likeCounter.increment(postId);
+        likeCounter.increment(postId);
+        likeCounter.decrement(postId);
+        assertThat(likeCounter.pending(postId)).isEqualTo(2);
+
+        likeCounter.flush();
+
+        assertThat(likeCount()).isEqualTo(2);
+        assertThat(likeCounter.pending(postId)).isZero();
+    }
+
+    @Test
+    void rolledBackFlushKeepsPendingDelta() {
+        likeCounter.increment(postId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            likeCounter.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(likeCount()).isZero();
+        assertThat(likeCounter.pending(postId)).isEqualTo(1);
+
+        likeCounter.flush();
+        assertThat(likeCount()).isEqualTo(1);
+        assertThat(likeCounter.pending(postId)).isZero();
+    }
+
+    @Test
+    void reconcileCountsUnflushedLikesOnce() {
+        likeService.likePost(postId, username);
+        assertThat(likeCounter.pending(postId)).isEqualTo(1);
+        assertThat(likeCount()).isZero();
+
+        likeCounter.reconcile();
+        assertThat(likeCount()).isEqualTo(1);
+        assertThat(likeCounter.pending(postId)).isZero();
+
+        likeCounter.flush();
+        assertThat(likeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentLikesSurviveAdderRetirement() throws InterruptedException {
+        // Written straight to a sum instead of the database, so flushes run back to back
+        AtomicLong column = new AtomicLong();
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.batchUpdate(anyString(), anyList())).thenAnswer(call -> {
+            List<Object[]> rows = call.getArgument(1);
+            rows.forEach(row -> column.addAndGet((Long) row[0]));
+            return new int[rows.size()];
+        });
+        LikeCounter counter = new LikeCounter(mock(PostRepository.class), jdbc,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        int threads = 8;
+        int rounds = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+        Thread flusher = new Thread(() -> {
+            while (!done.get()) {
+                counter.flush();
+            }
+        });
+        flusher.start();
+        List<Thread> likers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread liker = new Thread(() -> {
+                // Netting to zero over and over, so the flusher keeps retiring the adder under the likers
+                for (int i = 0; i < rounds; i++) {
+                    counter.increment(1L);
+                    counter.decrement(1L);
+                }
+                counter.increment(1L);
+            });
+            likers.add(liker);
+            liker.start();
+        }
+        for (Thread liker : likers) {
+            liker.join();
+        }
+        done.set(true);
+        flusher.join();
+
+        counter.flush();
+        assertThat(column.get()).isEqualTo(threads);
+        assertThat(counter.pending(1L)).isZero();
+    }
+
+    private long likeCount() {
+        return postRepository.findById(postId).orElseThrow().getLikeCount();
+    }
+}
@@ -0,0 +1,118 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.ProfilePictureProperties;
+import com.socialconnect.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfilePictureServiceTest {
+
+    private static final long USER_ID = 1L;
+
+    @TempDir
+    Path root;
+
+    private ProfilePictureStore store;
+    private UserService userService;
+    private ProfilePictureService service;
+
+    // Hashes in the order the worker wrote their variants
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ProfilePictureProperties properties = new ProfilePictureProperties();
+        store = spy(new ProfilePictureStore(root.toString(), properties));
+        // The first variant write waits, so a second upload can supersede the first
+        doAnswer(invocation -> {
+            ProfilePictureStore.Staged staged = invocation.getArgument(0);
+            if (written.isEmpty()) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            written.add(staged.hash());
+            return invocation.callRealMethod();
+        }).when(store).writeVariants(any());
+
+        userService = mock(UserService.class);
+        when(userService.getEntityByUsername("alice")).thenReturn(User.builder().id(USER_ID).username("alice").build());
+        when(userService.isProfilePictureInUse(anyString())).thenReturn(false);
+        service = new ProfilePictureService(store, userService, properties);
+    }
+
+    @Test
+    void supersededUploadLeavesOnlyTheNewerPicturesVariants() throws Exception {
+        upload(png(120, 80));
+        upload(png(90, 60));
+        release.countDown();
+        service.shutdown();
+
+        assertThat(written).hasSize(2);
+        String older = written.get(0);
+        String newer = written.get(1);
+        verify(userService).setProfilePicture(USER_ID, newer);
+        verify(userService, never()).setProfilePicture(USER_ID, older);
+        assertThat(store.hasVariants(older)).isFalse();
+        assertThat(root.resolve(older.substring(0, 2))).doesNotExist();
+        assertThat(store.hasVariants(newer)).isTrue();
+        assertNothingStaged();
+    }
+
+    @Test
+    void failedSwitchLeavesNoVariants() throws Exception {
+        when(userService.setProfilePicture(eq(USER_ID), anyString())).thenThrow(new IllegalStateException("database down"));
+        release.countDown();
+
+        upload(png(120, 80));
+        service.shutdown();
+
+        assertThat(written).hasSize(1);
+        assertThat(store.hasVariants(written.get(0))).isFalse();
+        assertNothingStaged();
+    }
+
+    private void upload(byte[] png) {
+        service.upload("alice", "image/png", png.length, new ByteArrayInputStream(png));
+    }
+
+    private void assertNothingStaged() throws IOException {
+        try (Stream<Path> incoming = Files.list(root.resolve(".incoming"))) {
+            assertThat(incoming).isEmpty();
+        }
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, x % height, 0x80ff0000);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.ProfilePictureProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProfilePictureStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void identicalUploadsShareOneHashAndVariantsAreSquare() throws IOException {
+        ProfilePictureStore store = new ProfilePictureStore(root.toString(), new ProfilePictureProperties());
+        byte[] png = png(600, 300);
+
+        ProfilePictureStore.Staged first = store.stage(new ByteArrayInputStream(png));
+        ProfilePictureStore.Staged second = store.stage(new ByteArrayInputStream(png));
+        assertThat(first.hash()).isEqualTo(second.hash()).hasSize(64);
+        assertThat(first.file()).isNotEqualTo(second.file());
+
+        store.validate(first);
+        assertThat(store.hasVariants(first.hash())).isFalse();
+        store.writeVariants(first);
+        assertThat(store.hasVariants(second.hash())).isTrue();
+
+        assertThat(dimensions(root.resolve(ProfilePictureVariant.SMALL.relativePath(first.hash())))).containsExactly(64, 64);
+        assertThat(dimensions(root.resolve(ProfilePictureVariant.MEDIUM.relativePath(first.hash())))).containsExactly(256, 256);
+        // Never scaled up past the source's shorter side
+        assertThat(dimensions(root.resolve(ProfilePictureVariant.LARGE.relativePath(first.hash())))).containsExactly(300, 300);
+    }
+
+    @Test
+    void rejectsUndecodableAndOversizedImagesFromTheHeader() throws IOException {
+        ProfilePictureProperties properties = new ProfilePictureProperties();
+        properties.setMaxPixels(10_000);
+        ProfilePictureStore store = new ProfilePictureStore(root.toString(), properties);
+
+        ProfilePictureStore.Staged text = store.stage(new ByteArrayInputStream("not an image".getBytes()));
+        assertThatThrownBy(() -> store.validate(text)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported image format");
+
+        ProfilePictureStore.Staged large = store.stage(new ByteArrayInputStream(png(200, 100)));
+        assertThatThrownBy(() -> store.validate(large)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Image is too large");
+    }
+
+    @Test
+    void oversizedUploadsLeaveNothingBehindAndDeleteRemovesAllVariants() throws IOException {
+        ProfilePictureProperties properties = new ProfilePictureProperties();
+        properties.setMaxUploadSize(DataSize.ofBytes(100));
+        ProfilePictureStore store = new ProfilePictureStore(root.toString(), properties);
+
+        assertThatThrownBy(() -> store.stage(new ByteArrayInputStream(new byte[101])))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        try (Stream<Path> incoming = Files.list(root.resolve(".incoming"))) {
+            assertThat(incoming).isEmpty();
+        }
+
+        properties.setMaxUploadSize(DataSize.ofMegabytes(1));
+        ProfilePictureStore.Staged staged = store.stage(new ByteArrayInputStream(png(80, 80)));
+        store.writeVariants(staged);
+        store.delete(staged.hash());
+        assertThat(store.hasVariants(staged.hash())).isFalse();
+        assertThat(root.resolve(staged.hash().substring(0, 2))).doesNotExist();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, x % height, 0x80ff0000);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static int[] dimensions(Path file) throws IOException {
+        BufferedImage image = ImageIO.read(Files.newInputStream(file));
+        return new int[]{image.getWidth(), image.getHeight()};
+    }
+}
@@ -0,0 +1,109 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ring ordering, capacity and slicing, and the cache's load, write-through and
+ * per-segment LRU eviction.
+ */
+class RecentPostsCacheTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    void ringKeepsNewestFirstAndIgnoresDuplicates() {
+        RecentPostsCache.Ring ring = new RecentPostsCache.Ring(4, true);
+        ring.insert(2, 200);
+        ring.insert(1, 100);
+        ring.insert(3, 300);
+        ring.insert(4, 200); // Same time as 2, higher id sorts first
+        ring.insert(3, 300);
+
+        assertThat(ring.slice(Long.MAX_VALUE, Long.MAX_VALUE, 10)).containsExactly(3, 4, 2, 1);
+    }
+
+    @Test
+    void fullRingDropsOldestAndStopsBeingComplete() {
+        RecentPostsCache.Ring ring = new RecentPostsCache.Ring(3, true);
+        for (long id = 1; id <= 3; id++) {
+            ring.insert(id, id * 100);
+        }
+        ring.insert(4, 400);
+        ring.insert(0, 50); // Older than everything in a full ring
+
+        assertThat(ring.slice(Long.MAX_VALUE, Long.MAX_VALUE, 3)).containsExactly(4, 3, 2);
+        // The ring no longer holds every post, so a page reaching past it is a miss
+        assertThat(ring.slice(Long.MAX_VALUE, Long.MAX_VALUE, 4)).isNull();
+    }
+
+    @Test
+    void sliceStartsAfterCursorAndOnlyCompleteRingsServeShortPages() {
+        RecentPostsCache.Ring complete = new RecentPostsCache.Ring(5, true);
+        RecentPostsCache.Ring partial = new RecentPostsCache.Ring(5, false);
+        for (long id = 1; id <= 4; id++) {
+            complete.insert(id, id * 100);
+            partial.insert(id, id * 100);
+        }
+
+        assertThat(complete.slice(300, 3, 2)).containsExactly(2, 1);
+        assertThat(complete.slice(300, 3, 5)).containsExactly(2, 1);
+        assertThat(partial.slice(300, 3, 2)).containsExactly(2, 1);
+        assertThat(partial.slice(300, 3, 5)).isNull();
+        assertThat(complete.slice(100, 1, 5)).isEmpty();
+    }
+
+    @Test
+    void removeClosesTheGap() {
+        RecentPostsCache.Ring ring = new RecentPostsCache.Ring(3, true);
+        for (long id = 1; id <= 3; id++) {
+            ring.insert(id, id * 100);
+        }
+        ring.remove(2);
+        ring.remove(9);
+        ring.insert(4, 400);
+
+        assertThat(ring.slice(Long.MAX_VALUE, Long.MAX_VALUE, 10)).containsExactly(4, 3, 1);
+    }
+
+    @Test
+    void cacheLoadsOnceAppliesWritesAndEvictsWithinSegment() {
+        PostRepository postRepository = mock(PostRepository.class);
+        when(postRepository.findRecentKeysByAuthorId(anyLong(), any())).thenAnswer(call -> {
+            long authorId = call.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{authorId * 10 + 2, T0.plusMinutes(2)});
+            rows.add(new Object[]{authorId * 10 + 1, T0.plusMinutes(1)});
+            return rows;
+        });
+        // Room for one author per segment
+        RecentPostsCache cache = new RecentPostsCache(postRepository, new SimpleMeterRegistry(), 50, 1);
+
+        assertThat(cache.page(1, null, 10)).containsExactly(12, 11);
+        cache.onPostCreated(1, 13, T0.plusMinutes(3));
+        cache.onPostDeleted(1, 11);
+        assertThat(cache.page(1, null, 10)).containsExactly(13, 12);
+        assertThat(cache.page(1, new PageCursor(T0.plusMinutes(3), 13L), 10)).containsExactly(12);
+        verify(postRepository, times(1)).findRecentKeysByAuthorId(eq(1L), any());
+
+        cache.page(2, null, 10); // Another segment: no eviction
+        cache.page(1 + RecentPostsCache.SEGMENTS, null, 10); // Same segment as author 1
+        assertThat(cache.size()).isEqualTo(2);
+        cache.page(1, null, 10);
+        verify(postRepository, times(2)).findRecentKeysByAuthorId(eq(1L), any());
+    }
+}
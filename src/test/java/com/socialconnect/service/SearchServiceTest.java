@@ -0,0 +1,152 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.request.RegisterRequest;
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.dto.response.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static com.socialconnect.TestUsers.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * BM25 ranking, score-and-id cursors, and near-real-time visibility. The scheduled refresh
+ * is pushed out of the way, so each test decides when the searcher sees its writes.
+ */
+@SpringBootTest(properties = "search.refresh-interval-ms=3600000")
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserService userService;
+
+    private UserResponse author;
+    // Unique per test, so earlier tests' documents never match
+    private String term;
+
+    @BeforeEach
+    void setUp() {
+        author = userService.register(registerRequest("search_author"));
+        term = unique("srch");
+    }
+
+    @Test
+    void postsRankByRelevanceThenNewestFirst() throws IOException {
+        String other = term + "x";
+        Long one = post(term + " appears once in a much longer post about other things entirely");
+        Long both = post(term + " " + other);
+        Long repeated = post(term + " " + term + " " + term);
+        Long tieOlder = post(other);
+        Long tieNewer = post(other);
+        searchIndex.refresh();
+
+        assertThat(ids(searchService.searchPosts(term + " " + other, null, null, 20)))
+                .startsWith(both)
+                .containsExactlyInAnyOrder(both, repeated, one, tieOlder, tieNewer);
+        assertThat(ids(searchService.searchPosts(term, null, null, 20))).containsExactly(repeated, both, one);
+        // Equal scores fall back to the id, newest first; the longer post scores lower
+        assertThat(ids(searchService.searchPosts(other, null, null, 20)))
+                .containsExactly(tieNewer, tieOlder, both);
+    }
+
+    @Test
+    void usernameMatchesOutrankNameMatches() throws IOException {
+        RegisterRequest byName = registerRequest("search_named");
+        byName.setFirstName(term);
+        UserResponse named = userService.register(byName);
+        RegisterRequest byUsername = registerRequest("unused");
+        byUsername.setUsername(term);
+        byUsername.setEmail(term + "@example.com");
+        UserResponse user = userService.register(byUsername);
+        searchIndex.refresh();
+
+        assertThat(searchService.searchUsers(term, null, 20).getItems())
+                .extracting(UserResponse::getId)
+                .containsExactly(user.getId(), named.getId());
+    }
+
+    @Test
+    void cursorPagesVisitEveryHitOnceInOrder() throws IOException {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(post(term + " " + i));
+        }
+        searchIndex.refresh();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<PostResponse> page = searchService.searchPosts(term, author.getUsername(), cursor, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).doesNotHaveDuplicates()
+                .containsExactlyElementsOf(ids(searchService.searchPosts(term, null, null, 20)))
+                .containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() throws IOException {
+        post(term);
+        post(term);
+        searchIndex.refresh();
+
+        assertThat(searchService.searchPosts(term, null, null, 2).getNextCursor()).isNull();
+        assertThat(searchService.searchPosts(term, null, null, 1).getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> searchService.searchPosts(term, null, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+    }
+
+    @Test
+    void writesBecomeVisibleAtTheNextRefresh() throws IOException {
+        Long id = post(term);
+        assertThat(searchService.searchPosts(term, null, null, 20).getItems()).isEmpty();
+
+        searchIndex.refresh();
+        assertThat(ids(searchService.searchPosts(term, null, null, 20))).containsExactly(id);
+
+        // Until the next refresh the hit is still in the index, but the deleted row is left out
+        postService.deletePost(id, author.getUsername());
+        assertThat(searchService.searchPosts(term, null, null, 20).getItems()).isEmpty();
+        searchIndex.refresh();
+        assertThat(searchService.searchPosts(term, null, null, 20).getItems()).isEmpty();
+    }
+
+    private Long post(String content) {
+        CreatePostRequest request = new CreatePostRequest();
+        request.setContent(content);
+        return postService.createPost(author.getUsername(), request).getId();
+    }
+
+    private static List<Long> ids(CursorPageResponse<PostResponse> page) {
+        return page.getItems().stream().map(PostResponse::getId).toList();
+    }
+}
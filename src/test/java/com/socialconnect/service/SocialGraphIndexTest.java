@@ -0,0 +1,94 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.FollowRepository;
+import com.socialconnect.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loading the graph from the repositories, and copy-on-write edge updates that leave
+ * rows already handed to readers untouched.
+ */
+class SocialGraphIndexTest {
+
+    private SocialGraphIndex index;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of(1L, 2L, 3L, 4L));
+        FollowRepository followRepository = mock(FollowRepository.class);
+        // Edge id, follower id, following id
+        when(followRepository.findEdgesAfter(anyLong(), any())).thenReturn(List.of(
+                new Object[]{10L, 1L, 2L},
+                new Object[]{11L, 1L, 3L},
+                new Object[]{12L, 3L, 2L},
+                new Object[]{13L, 4L, 2L}));
+        index = new SocialGraphIndex(followRepository, userRepository);
+        index.load();
+    }
+
+    @Test
+    void loadBuildsBothDirections() {
+        assertThat(index.userCount()).isEqualTo(4);
+        assertThat(index.edgeCount()).isEqualTo(4);
+        assertThat(index.containsUser(4)).isTrue();
+        assertThat(index.containsUser(5)).isFalse();
+        assertThat(index.followingIds(1).toArray()).containsExactly(2, 3);
+        assertThat(index.followerIds(2).toArray()).containsExactly(1, 3, 4);
+        assertThat(index.followerCount(2)).isEqualTo(3);
+        assertThat(index.followingCount(2)).isZero();
+        assertThat(index.isFollowing(1, 3)).isTrue();
+        assertThat(index.isFollowing(3, 1)).isFalse();
+        assertThat(index.followerIds(2, 1, 10)).containsExactly(3, 4);
+        assertThat(index.followerIds(2, 0, 2)).containsExactly(1, 3);
+    }
+
+    @Test
+    void edgeUpdatesPublishNewRowsWithoutTouchingOldOnes() {
+        LongStream before = index.followerIds(2);
+
+        index.addEdge(2, 1);
+        index.removeEdge(3, 2);
+        index.addEdge(1, 2); // Already present
+
+        assertThat(before.toArray()).containsExactly(1, 3, 4);
+        assertThat(index.followerIds(2).toArray()).containsExactly(1, 4);
+        assertThat(index.followingIds(2).toArray()).containsExactly(1);
+        assertThat(index.followingIds(3).toArray()).isEmpty();
+        assertThat(index.isFollowing(2, 1)).isTrue();
+        assertThat(index.edgeCount()).isEqualTo(4);
+    }
+
+    @Test
+    void pulledAuthorsAreTrackedPerFollower() {
+        index.markPulled(2);
+        index.addEdge(2, 3);
+        index.markPulled(3);
+        index.removeEdge(4, 2);
+
+        assertThat(index.isPulled(2)).isTrue();
+        assertThat(index.pulledFollowingIds(1).toArray()).containsExactly(2, 3);
+        assertThat(index.pulledFollowingIds(2).toArray()).containsExactly(3);
+        assertThat(index.pulledFollowingIds(4).toArray()).isEmpty();
+    }
+
+    @Test
+    void addUserAndEdgesBeyondLoadedCapacity() {
+        index.addUser(40);
+        index.addEdge(40, 1);
+
+        assertThat(index.containsUser(40)).isTrue();
+        assertThat(index.followerIds(1).toArray()).containsExactly(40);
+        assertThat(index.followingIds(40).toArray()).containsExactly(1);
+    }
+}
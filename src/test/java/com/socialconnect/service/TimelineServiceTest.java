@@ -0,0 +1,162 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.request.CreatePostRequest;
+import com.socialconnect.dto.response.CursorPageResponse;
+import com.socialconnect.dto.response.PostResponse;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.repository.projection.PostView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fan-out on write, backfill and removal on follow and unfollow, trimming back to
+ * {@code feed.timeline.max-entries}, and merging authors pulled at read time, read
+ * through the owner's timeline. Authors with two or more followers are pulled here.
+ */
+@SpringBootTest(properties = {"feed.timeline.max-entries=3", "feed.fanout.follower-threshold=1"})
+class TimelineServiceTest {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private PostService postService;
+
+    private UserResponse alice;
+    private UserResponse bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = userService.register(registerRequest("tl_alice"));
+        bob = userService.register(registerRequest("tl_bob"));
+    }
+
+    @Test
+    void fanOutWritesToAuthorAndFollowers() {
+        followService.followUser(alice.getId(), bob.getUsername());
+        Long postId = post(alice, "Hello followers");
+
+        assertThat(timeline(alice)).containsExactly(postId);
+        assertThat(timeline(bob)).containsExactly(postId);
+    }
+
+    @Test
+    void followBackfillsAndUnfollowRemovesAuthor() {
+        Long first = post(alice, "First");
+        Long second = post(alice, "Second");
+        Long own = post(bob, "Bob's own");
+
+        followService.followUser(alice.getId(), bob.getUsername());
+        assertThat(timeline(bob)).containsExactly(own, second, first);
+
+        followService.unfollowUser(alice.getId(), bob.getUsername());
+        assertThat(timeline(bob)).containsExactly(own);
+    }
+
+    @Test
+    void trimKeepsNewestEntriesPerOwner() {
+        followService.followUser(alice.getId(), bob.getUsername());
+        List<Long> posts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posts.add(post(alice, "Post " + i));
+        }
+        assertThat(timeline(bob)).hasSize(5);
+
+        assertThat(timelineService.trim()).isGreaterThanOrEqualTo(4);
+
+        assertThat(timeline(bob)).containsExactly(posts.get(4), posts.get(3), posts.get(2));
+        assertThat(timeline(alice)).containsExactly(posts.get(4), posts.get(3), posts.get(2));
+    }
+
+    @Test
+    void pulledAuthorStaysMergedAfterDroppingBelowThreshold() {
+        UserResponse carol = userService.register(registerRequest("tl_carol"));
+        UserResponse dave = userService.register(registerRequest("tl_dave"));
+        followService.followUser(carol.getId(), bob.getUsername());
+        followService.followUser(carol.getId(), dave.getUsername());
+
+        Long whilePopular = post(carol, "Pulled");
+        followService.unfollowUser(carol.getId(), dave.getUsername());
+        Long afterDrop = post(carol, "Still pulled");
+
+        assertThat(timeline(bob)).containsExactly(afterDrop, whilePopular);
+        followService.followUser(carol.getId(), dave.getUsername());
+        assertThat(timeline(dave)).containsExactly(afterDrop, whilePopular);
+    }
+
+    @Test
+    void feedPagesAcrossTimelineAndPulledAuthorsWithoutGapsOrRepeats() {
+        UserResponse carol = userService.register(registerRequest("tl_carol"));
+        UserResponse dave = userService.register(registerRequest("tl_dave"));
+        followService.followUser(alice.getId(), bob.getUsername());
+        followService.followUser(carol.getId(), bob.getUsername());
+        followService.followUser(carol.getId(), dave.getUsername());
+
+        List<Long> newestFirst = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            newestFirst.add(0, post(alice, "Pushed " + i));
+            newestFirst.add(0, post(carol, "Pulled " + i));
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<PostResponse> page = postService.getFeed(bob.getUsername(), cursor, 2);
+            page.getItems().forEach(post -> paged.add(post.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void mergeInterleavesNewestFirstAndDropsRepeats() {
+        LocalDateTime now = LocalDateTime.now();
+        PostView a = view(1, now.minusMinutes(5));
+        PostView b = view(2, now.minusMinutes(4));
+        PostView c = view(3, now.minusMinutes(3));
+        PostView sameTimeLowerId = view(4, now);
+        PostView sameTimeHigherId = view(5, now);
+
+        List<PostView> merged = TimelineService.merge(List.of(
+                List.of(sameTimeHigherId, c, a),
+                List.of(sameTimeLowerId, c, b),
+                List.of()), 10);
+
+        assertThat(merged).extracting(PostView::id).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(TimelineService.merge(List.of(List.of(c, a), List.of(b)), 2))
+                .extracting(PostView::id).containsExactly(3L, 2L);
+        assertThat(TimelineService.merge(List.of(List.of(), List.of()), 5)).isEmpty();
+    }
+
+    private static PostView view(long id, LocalDateTime createdAt) {
+        return new PostView(id, "Post " + id, 1L, 0L, 0L, createdAt, createdAt);
+    }
+
+    private Long post(UserResponse author, String content) {
+        CreatePostRequest request = new CreatePostRequest();
+        request.setContent(content);
+        return postService.createPost(author.getUsername(), request).getId();
+    }
+
+    private List<Long> timeline(UserResponse owner) {
+        return timelineService.getTimeline(userService.getEntityById(owner.getId()), null, 20).stream()
+                .map(PostView::id)
+                .toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.socialconnect.service;
+
+import com.socialconnect.config.AuthProperties;
+import com.socialconnect.exception.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void issuedAccessTokenVerifies() {
+        TokenService tokens = new TokenService(properties("k1", "k1"), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        String token = tokens.issue("alice|x", List.of("ROLE_USER", "ROLE_ADMIN"), TokenService.Type.ACCESS);
+        TokenService.Claims claims = tokens.verify(token, TokenService.Type.ACCESS);
+
+        assertThat(claims.username()).isEqualTo("alice|x");
+        assertThat(claims.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(claims.expiresAt()).isEqualTo(NOW.plus(Duration.ofMinutes(15)));
+    }
+
+    @Test
+    void rejectsTamperedWrongTypeAndExpiredTokens() {
+        TokenService tokens = new TokenService(properties("k1", "k1"), Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = tokens.issue("alice", List.of("ROLE_USER"), TokenService.Type.ACCESS);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("k1|ACCESS|9999999999|ROLE_ADMIN|alice".getBytes()) + token.substring(token.lastIndexOf('.'));
+
+        assertThatThrownBy(() -> tokens.verify(forged, TokenService.Type.ACCESS)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> tokens.verify("garbage", TokenService.Type.ACCESS)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> tokens.verify(token, TokenService.Type.REFRESH)).isInstanceOf(UnauthorizedException.class);
+
+        TokenService later = new TokenService(properties("k1", "k1"), Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+        assertThatThrownBy(() -> later.verify(token, TokenService.Type.ACCESS))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessage("Token expired");
+    }
+
+    @Test
+    void tokensSignedWithRetiringKeyVerifyAfterRotation() {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        String oldToken = new TokenService(properties("k1", "k1"), clock)
+                .issue("alice", List.of("ROLE_USER"), TokenService.Type.REFRESH);
+
+        TokenService rotated = new TokenService(properties("k2", "k1", "k2"), clock);
+        assertThat(rotated.verify(oldToken, TokenService.Type.REFRESH).username()).isEqualTo("alice");
+
+        TokenService retired = new TokenService(properties("k2", "k2"), clock);
+        assertThatThrownBy(() -> retired.verify(oldToken, TokenService.Type.REFRESH)).isInstanceOf(UnauthorizedException.class);
+    }
+
+    private static AuthProperties properties(String signingKeyId, String... keyIds) {
+        AuthProperties properties = new AuthProperties();
+        properties.setMode(AuthProperties.Mode.TOKEN);
+        properties.getToken().setSigningKeyId(signingKeyId);
+        for (String kid : keyIds) {
+            byte[] secret = new byte[32];
+            secret[0] = (byte) kid.hashCode();
+            properties.getToken().getKeys().put(kid, Base64.getEncoder().encodeToString(secret));
+        }
+        return properties;
+    }
+}
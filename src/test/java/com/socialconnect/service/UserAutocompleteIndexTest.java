@@ -0,0 +1,133 @@
+package com.socialconnect.service;
+
+import com.socialconnect.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares suggestions against a brute-force ranking while users register and rename,
+ * with enough shared prefixes that both precomputed and scanned ranges are exercised,
+ * and with changes both pending in the delta and merged into the base.
+ */
+class UserAutocompleteIndexTest {
+
+    private static final int TOP_K = 10;
+    private static final String[] NAMES = {"Anna", "Andrés", "Ann-Marie", "Bob", "Björn", "Carla"};
+
+    private final Map<Long, String[]> names = new HashMap<>();
+    private final Random random = new Random(7);
+    private UserAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSummariesAfter(anyLong(), any())).thenReturn(List.of());
+        SocialGraphIndex socialGraphIndex = mock(SocialGraphIndex.class);
+        when(socialGraphIndex.followerCount(anyLong())).thenAnswer(call -> (int) ((long) call.getArgument(0) % 37));
+        index = new UserAutocompleteIndex(userRepository, socialGraphIndex, TOP_K);
+        index.load();
+    }
+
+    @Test
+    void matchesBruteForceAcrossRegistrationsAndRenames() {
+        for (long id = 1; id <= 1_500; id++) {
+            put(id, "user" + id, NAMES[random.nextInt(NAMES.length)], "Lastname" + random.nextInt(50));
+            if (id % 200 == 0) {
+                index.merge();
+            }
+        }
+        assertThat(index.pendingChanges()).isEqualTo(100);
+        assertMatchesBruteForce();
+        index.merge();
+        assertMatchesBruteForce();
+
+        // More renames than the ranked lists' slack, so some lookups have to rescan their range
+        for (int i = 0; i < 300; i++) {
+            long id = 1 + random.nextInt(1_500);
+            put(id, names.get(id)[0], NAMES[random.nextInt(NAMES.length)], "Other" + random.nextInt(5));
+        }
+        assertThat(index.pendingChanges()).isGreaterThan(UserAutocompleteIndex.SLACK);
+        assertMatchesBruteForce();
+
+        index.rerank();
+        assertThat(index.pendingChanges()).isZero();
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void renamedUserLeavesOldKeysBeforeAndAfterMerge() {
+        put(1L, "alpha", "Anna", "Smith");
+        put(2L, "beta", "Anna", "Jones");
+        index.merge();
+        assertThat(index.pendingChanges()).isZero();
+
+        put(1L, "alpha", "Carla", "Smith");
+        put(1L, "alpha", "Carla", "Stone");
+        assertThat(index.pendingChanges()).isEqualTo(1);
+        assertThat(index.suggest("anna", TOP_K)).extracting(UserAutocompleteIndex.Suggestion::id).containsExactly(2L);
+        assertThat(index.suggest("carla st", TOP_K)).extracting(UserAutocompleteIndex.Suggestion::id).containsExactly(1L);
+        assertThat(index.suggest("smith", TOP_K)).isEmpty();
+
+        index.merge();
+        assertThat(index.pendingChanges()).isZero();
+        assertThat(index.suggest("anna", TOP_K)).extracting(UserAutocompleteIndex.Suggestion::id).containsExactly(2L);
+        assertThat(index.suggest("smith", TOP_K)).isEmpty();
+        assertThat(index.suggest("alpha", TOP_K)).singleElement()
+                .extracting(UserAutocompleteIndex.Suggestion::lastName).isEqualTo("Stone");
+    }
+
+    @Test
+    void foldsCaseAccentsAndWhitespace() {
+        put(1L, "jdoe", "  José ", "Ñúñez");
+
+        assertThat(index.suggest("JOSE N", TOP_K)).extracting(UserAutocompleteIndex.Suggestion::id).containsExactly(1L);
+        assertThat(index.suggest("nun", TOP_K)).extracting(UserAutocompleteIndex.Suggestion::id).containsExactly(1L);
+        assertThat(index.suggest("   ", TOP_K)).isEmpty();
+        assertThat(index.suggest("x", TOP_K)).isEmpty();
+    }
+
+    private void put(long id, String username, String firstName, String lastName) {
+        names.put(id, new String[]{username, firstName, lastName});
+        index.put(id, username, firstName, lastName, null);
+    }
+
+    private void assertMatchesBruteForce() {
+        for (String prefix : List.of("u", "user", "user1", "user12", "user149", "a", "an", "ann", "andre", "anna l",
+                "b", "bjorn", "l", "lastname4", "o", "other3", "carla other", "z")) {
+            assertThat(index.suggest(prefix, TOP_K))
+                    .as(prefix)
+                    .extracting(UserAutocompleteIndex.Suggestion::id)
+                    .containsExactlyElementsOf(bruteForce(prefix));
+        }
+    }
+
+    private List<Long> bruteForce(String prefix) {
+        String normalized = UserAutocompleteIndex.normalize(prefix);
+        List<Long> matches = new ArrayList<>();
+        names.forEach((id, user) -> {
+            String first = UserAutocompleteIndex.normalize(user[1]);
+            String last = UserAutocompleteIndex.normalize(user[2]);
+            for (String key : List.of(UserAutocompleteIndex.normalize(user[0]), first, last, first + " " + last)) {
+                if (key.startsWith(normalized)) {
+                    matches.add(id);
+                    return;
+                }
+            }
+        });
+        matches.sort(Comparator.<Long>comparingLong(id -> -(id % 37)).thenComparingLong(id -> id));
+        return matches.stream().limit(TOP_K).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.socialconnect.service;
+
+import com.socialconnect.dto.request.UpdateProfileRequest;
+import com.socialconnect.dto.response.UserResponse;
+import com.socialconnect.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.socialconnect.TestUsers.registerRequest;
+import static com.socialconnect.TestUsers.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the statements an authenticated request prepares with a cold and a warm
+ * user cache; the difference must be exactly the per-request lookup the cache removes.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class UserCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserResponse alice;
+    private UserResponse bob;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        alice = userService.register(registerRequest("cache_alice"));
+        bob = userService.register(registerRequest("cache_bob"));
+    }
+
+    @Test
+    void warmCacheRemovesUserLookupsFromRequestPath() throws Exception {
+        RequestBuilder[] requests = {
+                get("/api/auth/me").with(user(alice.getUsername())),
+                get("/api/auth/" + bob.getId()).with(user(alice.getUsername())),
+                get("/api/posts/feed").with(user(alice.getUsername())),
+                get("/api/posts/user/" + bob.getId()).with(user(alice.getUsername())),
+        };
+        String[] names = {"GET /api/auth/me", "GET /api/auth/{id}", "GET /api/posts/feed", "GET /api/posts/user/{id}"};
+
+        for (int i = 0; i < requests.length; i++) {
+            statementsFor(requests[i]); // Warm every other cache so only user lookups differ
+            userCache.invalidateAll();
+            long cold = statementsFor(requests[i]);
+            long warm = statementsFor(requests[i]);
+            // The user lookup behind the authenticated principal is the one statement a warm cache saves
+            assertThat(cold - warm).as("statements saved on %s (cold=%d, warm=%d)", names[i], cold, warm).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void profileUpdateIsVisibleOnNextRead() throws Exception {
+        mockMvc.perform(get("/api/auth/me").with(user(bob.getUsername())))
+                .andExpect(status().isOk());
+
+        UpdateProfileRequest update = new UpdateProfileRequest();
+        update.setFirstName("Robert");
+        userService.updateProfile(bob.getUsername(), update);
+
+        mockMvc.perform(get("/api/auth/me").with(user(bob.getUsername())))
+                .andExpect(jsonPath("$.firstName").value("Robert"));
+        mockMvc.perform(get("/api/auth/" + bob.getId()).with(user(alice.getUsername())))
+                .andExpect(jsonPath("$.firstName").value("Robert"));
+    }
+
+    @Test
+    void snapshotsCopyEveryColumn() {
+        String username = unique("cache_copy_");
+        User loaded = User.builder()
+                .id(Long.MAX_VALUE)
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .firstName("First")
+                .lastName("Last")
+                .bio("Bio")
+                .profilePicture("picture")
+                .followerCount(7L)
+                .followingCount(3L)
+                .timelinePulled(true)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .updatedAt(LocalDateTime.now())
+                .version(2L)
+                .build();
+
+        User cached = userCache.getByUsername(username, name -> Optional.of(loaded)).orElseThrow();
+        assertThat(cached).isNotSameAs(loaded).usingRecursiveComparison().isEqualTo(loaded);
+        assertThat(userCache.getById(loaded.getId(), id -> Optional.empty()).orElseThrow())
+                .usingRecursiveComparison().isEqualTo(loaded);
+        userCache.invalidate(loaded);
+    }
+
+    private long statementsFor(RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}